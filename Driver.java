@@ -1,19 +0,0 @@
-import java.util.Scanner;
-
-public class Driver {
-    public static void main(String[] args) {
-
-        // Test Cases for AVL: (Uncomment to see)
-        //Tests.testAVL();
-
-        //Test Cases for Splay: (Uncomment to see)
-        //Tests.testSplay();
-
-        //Test Cases for RedBlack: (Uncomment to see)
-        //Tests.testRedBlack();
-
-        //Test Cases for 2-3-4: (Uncomment to see)
-        //Tests.testTree234();
-
-    }
-}
@@ -0,0 +1,92 @@
+/*
+Iterative AVL (path array, early-stop retracing) against the old recursive version (RecursiveAVL)
+    1. find: look up a loaded key
+    2. insertDelete: insert a missing key and delete it again
+    3. deleteInsert: delete a loaded key and insert it back
+Run with: java -jar benchmarks/target/benchmarks.jar AVLBenchmark -p size=1000000
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.AVL;
+import trees.BalanceTree;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class AVLBenchmark {
+
+    static final int PROBES = 1 << 16;
+
+    @Param({"iterative", "recursive"})
+    public String version;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "RANDOM", "ZIPF"})
+    public Workload workload;
+
+    private BalanceTree<Integer> avl;
+    private Integer[] hits;
+    private Integer[] misses;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void load() {
+        int[] loaded = workload.loadOrder(size, 42);
+        avl = version.equals("iterative") ? new AVL<>() : new RecursiveAVL<>();
+        for (int key : loaded) {
+            avl.insert(key);
+        }
+
+        int[] probes = workload.probes(loaded, PROBES, 7);
+        hits = new Integer[PROBES];
+        misses = new Integer[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            hits[i] = probes[i];
+            misses[i] = probes[i] + 1;
+        }
+    }
+
+    private int next() {
+        return cursor++ & (PROBES - 1);
+    }
+
+    @Benchmark
+    public boolean find() {
+        return avl.find(hits[next()]);
+    }
+
+    @Benchmark
+    public void insertDelete() {
+        Integer key = misses[next()];
+        avl.insert(key);
+        avl.delete(key);
+    }
+
+    @Benchmark
+    public void deleteInsert() {
+        Integer key = hits[next()];
+        avl.delete(key);
+        avl.insert(key);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+Where BTree find / insert throughput peaks as the order grows, next to Tree234, AVL and RedBlack
+Each trial loads size random keys (0, 2, 4, ...), then measures:
+    1. find: look up a loaded key
+    2. findMiss: look up a key that is not in the tree
+    3. insertDelete: insert a missing key and delete it again (tree size stays the same)
+BTree4 is the same shape as Tree234, so the difference between them is binary search against a linear scan.
+Run with: java -jar benchmarks/target/benchmarks.jar BTreeBenchmark -p size=10000000
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.BalanceTree;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class BTreeBenchmark {
+
+    @Param({"BTree4", "BTree8", "BTree16", "BTree32", "BTree64", "BTree128", "BTree256", "Tree234", "AVL", "RedBlack"})
+    public String tree;
+
+    @Param({"1000000"})
+    public int size;
+
+    private BalanceTree<Integer> balanceTree;
+    private Integer[] hits;
+    private Integer[] misses;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void load() {
+        int[] loaded = Workload.RANDOM.loadOrder(size, 42);
+        balanceTree = Trees.create(tree);
+        for (int key : loaded) {
+            balanceTree.insert(key);
+        }
+
+        int[] probes = Workload.RANDOM.probes(loaded, TreeBenchmark.PROBES, 7);
+        hits = new Integer[TreeBenchmark.PROBES];
+        misses = new Integer[TreeBenchmark.PROBES];
+        for (int i = 0; i < TreeBenchmark.PROBES; i++) {
+            hits[i] = probes[i];
+            misses[i] = probes[i] + 1;
+        }
+    }
+
+    private int next() {
+        return cursor++ & (TreeBenchmark.PROBES - 1);
+    }
+
+    @Benchmark
+    public boolean find() {
+        return balanceTree.find(hits[next()]);
+    }
+
+    @Benchmark
+    public boolean findMiss() {
+        return balanceTree.find(misses[next()]);
+    }
+
+    @Benchmark
+    public void insertDelete() {
+        Integer key = misses[next()];
+        balanceTree.insert(key);
+        balanceTree.delete(key);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+Sorted batches against one call per key, for AVL, RedBlack and ShardedAVL (slices run in parallel per shard)
+Each trial loads size keys (0, 2, 4, ...) in random order and pre-generates sorted batches of batch random keys:
+    1. findLoop / findAll: look up a batch of loaded keys
+    2. insertLoop / insertAll: insert a batch of missing (odd) keys, then delete them again one by one
+       so the tree keeps its size, the delete half is the same for both
+Scores are per batch, divide by batch for the per-key cost.
+Run with: java -jar benchmarks/target/benchmarks.jar BatchBenchmark -p batch=16,4096
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.BalanceTree;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class BatchBenchmark {
+
+    //number of pre-generated batches of each kind, a power of two so the cursor can wrap with a mask
+    static final int BATCHES = 64;
+
+    @Param({"AVL", "RedBlack", "ShardedAVL"})
+    public String tree;
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"16", "256", "4096", "65536"})
+    public int batch;
+
+    private BalanceTree<Integer> balanceTree;
+    private Integer[][] hits;
+    private Integer[][] misses;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void load() {
+        balanceTree = Trees.create(tree);
+        for (int key : Workload.RANDOM.loadOrder(size, 42)) {
+            balanceTree.insert(key);
+        }
+
+        Random random = new Random(7);
+        hits = new Integer[BATCHES][];
+        misses = new Integer[BATCHES][];
+        for (int b = 0; b < BATCHES; b++) {
+            int[] keys = random.ints(0, size).distinct().limit(batch).sorted().toArray();
+            hits[b] = new Integer[batch];
+            misses[b] = new Integer[batch];
+            for (int i = 0; i < batch; i++) {
+                hits[b][i] = 2 * keys[i];
+                misses[b][i] = 2 * keys[i] + 1;
+            }
+        }
+    }
+
+    private int next() {
+        return cursor++ & (BATCHES - 1);
+    }
+
+    @Benchmark
+    public BitSet findLoop() {
+        Integer[] keys = hits[next()];
+        BitSet found = new BitSet(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            if (balanceTree.find(keys[i])) {
+                found.set(i);
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public BitSet findAll() {
+        return balanceTree.findAll(hits[next()]);
+    }
+
+    @Benchmark
+    public void insertLoop() {
+        Integer[] keys = misses[next()];
+        for (Integer key : keys) {
+            balanceTree.insert(key);
+        }
+        deleteAll(keys);
+    }
+
+    @Benchmark
+    public void insertAll() {
+        Integer[] keys = misses[next()];
+        balanceTree.insertAll(keys);
+        deleteAll(keys);
+    }
+
+    private void deleteAll(Integer[] keys) {
+        for (Integer key : keys) {
+            balanceTree.delete(key);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+Time to build an AVL or RedBlack of size sorted keys
+    1. insertAll: one insert per key, in ascending order
+    2. buildFromSorted: the O(n) bulk load from an Integer[]
+    3. buildFromIntStream: the bulk load from an IntStream, including boxing
+Single-shot, so the per-key cost is the score divided by size.
+Run with: java -jar benchmarks/target/benchmarks.jar BulkLoadBenchmark -p size=1000000
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.AVL;
+import trees.BalanceTree;
+import trees.RedBlack;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class BulkLoadBenchmark {
+
+    @Param({"AVL", "RedBlack"})
+    public String tree;
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    private Integer[] keys;
+
+    @Setup(Level.Trial)
+    public void keys() {
+        keys = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = 2 * i;
+        }
+    }
+
+    @Benchmark
+    public BalanceTree<Integer> insertAll() {
+        BalanceTree<Integer> balanceTree = Trees.create(tree);
+        for (Integer key : keys) {
+            balanceTree.insert(key);
+        }
+        return balanceTree;
+    }
+
+    @Benchmark
+    public BalanceTree<Integer> buildFromSorted() {
+        return tree.equals("AVL") ? AVL.buildFromSorted(keys) : RedBlack.buildFromSorted(keys);
+    }
+
+    @Benchmark
+    public BalanceTree<Integer> buildFromIntStream() {
+        IntStream sorted = IntStream.range(0, size).map(i -> 2 * i);
+        return tree.equals("AVL") ? AVL.buildFromSorted(sorted) : RedBlack.buildFromSorted(sorted);
+    }
+}
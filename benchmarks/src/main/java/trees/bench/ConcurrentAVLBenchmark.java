@@ -0,0 +1,101 @@
+/*
+Multithreaded mixed workload on one shared AVL: ConcurrentAVL against the locked single-threaded AVL
+Each trial loads size keys (0, 2, 4, ...) in random order, then every thread repeatedly does one operation
+on a random key in [0, 2 * size): findPercent% find, the rest split evenly between insert and delete
+    1. ConcurrentAVL: optimistic lock-free finds, per-node locks for updates
+    2. stamped: AVL in ConcurrentBalanceTree (one StampedLock)
+    3. synchronized: AVL with every operation in a synchronized block
+    4. sharded: ShardedTree of AVL shards, one lock per key range
+Scores are summed over all threads, so compare runs with different -t to see how each scales.
+Run with: java -jar benchmarks/target/benchmarks.jar ConcurrentAVLBenchmark -t 16 -p findPercent=50
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.AVL;
+import trees.BalanceTree;
+import trees.ConcurrentAVL;
+import trees.ConcurrentBalanceTree;
+import trees.ShardedTree;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class ConcurrentAVLBenchmark {
+
+    @Param({"ConcurrentAVL", "stamped", "synchronized", "sharded"})
+    public String tree;
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"90", "50"})
+    public int findPercent;
+
+    private BalanceTree<Integer> balanceTree;
+    private boolean synchronize;
+    private Integer[] keys;
+
+    @Setup(Level.Trial)
+    public void load() {
+        BalanceTree<Integer> plain = tree.equals("ConcurrentAVL") ? new ConcurrentAVL<>()
+                : tree.equals("sharded") ? new ShardedTree<>(AVL::new) : new AVL<>();
+        for (int key : Workload.RANDOM.loadOrder(size, 42)) {
+            plain.insert(key);
+        }
+        synchronize = tree.equals("synchronized");
+        balanceTree = tree.equals("stamped") ? new ConcurrentBalanceTree<>(plain) : plain;
+
+        // boxed once up front, so the threads don't measure allocation
+        keys = new Integer[2 * size];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+        }
+    }
+
+    @Benchmark
+    public boolean mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer key = keys[random.nextInt(keys.length)];
+        int roll = random.nextInt(100);
+        if (synchronize) {
+            synchronized (balanceTree) {
+                return apply(key, roll);
+            }
+        }
+        return apply(key, roll);
+    }
+
+    private boolean apply(Integer key, int roll) {
+        if (roll < findPercent) {
+            return balanceTree.find(key);
+        }
+        if (((roll - findPercent) & 1) == 0) {
+            balanceTree.insert(key);
+        } else {
+            balanceTree.delete(key);
+        }
+        return false;
+    }
+}
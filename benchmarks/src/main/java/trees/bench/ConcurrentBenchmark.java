@@ -0,0 +1,106 @@
+/*
+Multithreaded 95/5 read/write mix on one shared tree
+Each trial loads size keys (0, 2, 4, ...) in random order, then every thread repeatedly does one operation:
+95% find of a loaded key, 5% insert and delete of a missing key (two writes)
+    1. stamped: the tree wrapped in ConcurrentBalanceTree (optimistic reads, StampedLock)
+    2. synchronized: every operation in a synchronized block on the tree, the old way
+Scores are summed over all threads, so compare runs with different -t to see how reads scale.
+Run with: java -jar benchmarks/target/benchmarks.jar ConcurrentBenchmark -t 4 -p tree=RedBlack
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.BalanceTree;
+import trees.ConcurrentBalanceTree;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class ConcurrentBenchmark {
+
+    @Param({"AVL", "RedBlack", "Tree234"})
+    public String tree;
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"stamped", "synchronized"})
+    public String lock;
+
+    //percentage of operations that write
+    @Param({"5"})
+    public int writePercent;
+
+    private BalanceTree<Integer> balanceTree;
+    private boolean synchronize;
+    private Integer[] keys;
+
+    @Setup(Level.Trial)
+    public void load() {
+        BalanceTree<Integer> plain = Trees.create(tree);
+        for (int key : Workload.RANDOM.loadOrder(size, 42)) {
+            plain.insert(key);
+        }
+        synchronize = lock.equals("synchronized");
+        balanceTree = synchronize ? plain : new ConcurrentBalanceTree<>(plain);
+
+        // boxed once up front, so the threads don't measure allocation
+        keys = new Integer[2 * size];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+        }
+    }
+
+    @Benchmark
+    public boolean mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(size);
+        if (random.nextInt(100) >= writePercent) {
+            return find(keys[2 * i]);
+        }
+        update(keys[2 * i + 1]);
+        return false;
+    }
+
+    private boolean find(Integer key) {
+        if (synchronize) {
+            synchronized (balanceTree) {
+                return balanceTree.find(key);
+            }
+        }
+        return balanceTree.find(key);
+    }
+
+    private void update(Integer key) {
+        if (synchronize) {
+            synchronized (balanceTree) {
+                balanceTree.insert(key);
+                balanceTree.delete(key);
+            }
+        } else {
+            balanceTree.insert(key);
+            balanceTree.delete(key);
+        }
+    }
+}
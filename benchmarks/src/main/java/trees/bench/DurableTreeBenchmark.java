@@ -0,0 +1,100 @@
+/*
+Durable inserts and deletes through DurableTree: an fsync per operation against group commit at several windows
+Each trial starts an AVL with size keys (0, 2, 4, ...) in a fresh directory under java.io.tmpdir, then every thread
+repeatedly inserts or deletes a random key in [0, 2 * size) and waits until it is durable.
+    1. perOp: every operation writes and fsyncs its own record while holding the tree
+    2. group-<micros>: group commit, the leader waits micros for more records before the fsync they all share;
+       group-0 adds no wait and only batches the callers that arrive while an fsync is running
+Automatic checkpoints are off, so the scores are the log alone. They are summed over all threads
+and depend almost entirely on how long an fsync takes on the disk behind java.io.tmpdir.
+Run with: java -jar benchmarks/target/benchmarks.jar DurableTreeBenchmark -t 32 -p commit=perOp,group-0
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.AVL;
+import trees.DurableTree;
+import trees.KeyCodec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class DurableTreeBenchmark {
+
+    @Param({"perOp", "group-0", "group-50", "group-200", "group-1000"})
+    public String commit;
+
+    @Param({"100000"})
+    public int size;
+
+    private Path directory;
+    private DurableTree<Integer> tree;
+    private Integer[] keys;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        boolean group = commit.startsWith("group-");
+        long window = group ? Long.parseLong(commit.substring("group-".length())) : 0;
+        directory = Files.createTempDirectory("durable-bench");
+        tree = new DurableTree<>(new AVL<>(), directory, KeyCodec.INTEGER, group, window, 0);
+
+        // boxed once up front, so the threads don't measure allocation
+        keys = new Integer[2 * size];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+        }
+        Integer[] initial = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            initial[i] = keys[2 * i];
+        }
+        tree.insertAll(initial);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        tree.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void update() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Integer key = keys[random.nextInt(keys.length)];
+        if (random.nextBoolean()) {
+            tree.insert(key);
+        } else {
+            tree.delete(key);
+        }
+    }
+}
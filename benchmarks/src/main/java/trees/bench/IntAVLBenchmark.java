@@ -0,0 +1,133 @@
+/*
+IntAVL (int keys in parallel arrays) head to head with AVL<Integer>
+Both trees are loaded with the same size keys, then each operation is measured on both:
+    1. find: look up a loaded key
+    2. insertDelete: insert a missing key and delete it again
+    3. load: build a tree of size keys from empty (per-key cost is the score divided by size)
+Run with: java -jar benchmarks/target/benchmarks.jar IntAVLBenchmark -p size=1000000
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.AVL;
+import trees.IntAVL;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class IntAVLBenchmark {
+
+    static final int PROBES = 1 << 16;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "RANDOM", "ZIPF"})
+    public Workload workload;
+
+    private int[] loaded;
+    private IntAVL intAVL;
+    private AVL<Integer> avl;
+
+    private int[] hits;
+    private int[] misses;
+    private Integer[] boxedHits;
+    private Integer[] boxedMisses;
+    private Integer[] boxedLoaded;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void load() {
+        loaded = workload.loadOrder(size, 42);
+        boxedLoaded = new Integer[size];
+        intAVL = new IntAVL(size);
+        avl = new AVL<>();
+        for (int i = 0; i < size; i++) {
+            boxedLoaded[i] = loaded[i];
+            intAVL.insert(loaded[i]);
+            avl.insert(boxedLoaded[i]);
+        }
+
+        hits = workload.probes(loaded, PROBES, 7);
+        misses = new int[PROBES];
+        boxedHits = new Integer[PROBES];
+        boxedMisses = new Integer[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            misses[i] = hits[i] + 1;
+            boxedHits[i] = hits[i];
+            boxedMisses[i] = misses[i];
+        }
+    }
+
+    private int next() {
+        return cursor++ & (PROBES - 1);
+    }
+
+    @Benchmark
+    public boolean intAVLFind() {
+        return intAVL.find(hits[next()]);
+    }
+
+    @Benchmark
+    public boolean avlFind() {
+        return avl.find(boxedHits[next()]);
+    }
+
+    @Benchmark
+    public void intAVLInsertDelete() {
+        int key = misses[next()];
+        intAVL.insert(key);
+        intAVL.delete(key);
+    }
+
+    @Benchmark
+    public void avlInsertDelete() {
+        Integer key = boxedMisses[next()];
+        avl.insert(key);
+        avl.delete(key);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public IntAVL intAVLLoad() {
+        IntAVL tree = new IntAVL();
+        for (int key : loaded) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public AVL<Integer> avlLoad() {
+        AVL<Integer> tree = new AVL<>();
+        for (Integer key : boxedLoaded) {
+            tree.insert(key);
+        }
+        return tree;
+    }
+}
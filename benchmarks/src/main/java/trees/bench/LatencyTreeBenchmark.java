@@ -0,0 +1,106 @@
+/*
+Cost of timing every operation with LatencyTree, and the latency tails it records
+Each trial loads a tree with size keys in the workload's order, then measures find and insertDelete
+(as in TreeBenchmark) on the plain tree and on the same tree wrapped in a LatencyTree.
+At the end of a timed trial the p50 / p99 / p99.9 / max of every operation is printed and appended to
+latency-<tree>.csv in java.io.tmpdir. Warmup is left in, so the max includes the JIT's first calls.
+Run with: java -jar benchmarks/target/benchmarks.jar LatencyTreeBenchmark -p tree=Splay,Tree234 -p workload=ZIPF
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.BalanceTree;
+import trees.LatencyHistogram;
+import trees.LatencyTree;
+import trees.TreeMetrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class LatencyTreeBenchmark {
+
+    @Param({"AVL", "Splay", "RedBlack", "Tree234"})
+    public String tree;
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"RANDOM"})
+    public Workload workload;
+
+    @Param({"false", "true"})
+    public boolean timed;
+
+    private BalanceTree<Integer> balanceTree;
+    private Integer[] hits;
+    private Integer[] misses;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void load() {
+        int[] loaded = workload.loadOrder(size, 42);
+        BalanceTree<Integer> plain = Trees.create(tree);
+        for (int key : loaded) {
+            plain.insert(key);
+        }
+        balanceTree = timed ? new LatencyTree<>(plain) : plain;
+
+        int[] probes = workload.probes(loaded, TreeBenchmark.PROBES, 7);
+        hits = new Integer[TreeBenchmark.PROBES];
+        misses = new Integer[TreeBenchmark.PROBES];
+        for (int i = 0; i < TreeBenchmark.PROBES; i++) {
+            hits[i] = probes[i];
+            misses[i] = probes[i] + 1;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void report() throws IOException {
+        if (balanceTree instanceof LatencyTree<Integer> latencyTree) {
+            Map<TreeMetrics.Operation, LatencyHistogram> histograms = latencyTree.total();
+            histograms.values().removeIf(histogram -> histogram.count() == 0);
+            System.out.println();
+            histograms.forEach((operation, histogram) -> System.out.println(tree + " " + operation + ": " + histogram));
+            LatencyTree.appendCsv(Path.of(System.getProperty("java.io.tmpdir"), "latency-" + tree + ".csv"),
+                    workload + " " + size, histograms);
+        }
+    }
+
+    private int next() {
+        return cursor++ & (TreeBenchmark.PROBES - 1);
+    }
+
+    @Benchmark
+    public boolean find() {
+        return balanceTree.find(hits[next()]);
+    }
+
+    @Benchmark
+    public void insertDelete() {
+        Integer key = misses[next()];
+        balanceTree.insert(key);
+        balanceTree.delete(key);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+Time to build a tree of size keys from empty with one insert per key
+Single-shot, so the per-key cost is the score divided by size.
+Run with: java -jar benchmarks/target/benchmarks.jar LoadBenchmark -p tree=Tree234 -p size=1000000
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.BalanceTree;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class LoadBenchmark {
+
+    @Param({"AVL", "Splay", "RedBlack", "Tree234"})
+    public String tree;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "RANDOM"})
+    public Workload workload;
+
+    private Integer[] keys;
+
+    @Setup(Level.Trial)
+    public void keys() {
+        int[] loaded = workload.loadOrder(size, 42);
+        keys = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = loaded[i];
+        }
+    }
+
+    @Benchmark
+    public BalanceTree<Integer> insertAll() {
+        BalanceTree<Integer> balanceTree = Trees.create(tree);
+        for (Integer key : keys) {
+            balanceTree.insert(key);
+        }
+        return balanceTree;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+OffHeapRedBlack (long keys in direct buffers) head to head with RedBlack<Long>
+    1. find: look up a loaded key
+    2. insertDelete: insert a missing key and delete it again
+Add -prof gc to compare allocation and GC time, the off-heap tree should stay flat as size grows.
+Run with: java -jar benchmarks/target/benchmarks.jar OffHeapRedBlackBenchmark -p size=10000000 -prof gc
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.OffHeapRedBlack;
+import trees.RedBlack;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class OffHeapRedBlackBenchmark {
+
+    static final int PROBES = 1 << 16;
+
+    @Param({"1000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM", "ZIPF"})
+    public Workload workload;
+
+    private OffHeapRedBlack offHeap;
+    private RedBlack<Long> onHeap;
+
+    private long[] hits;
+    private long[] misses;
+    private Long[] boxedHits;
+    private Long[] boxedMisses;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void load() {
+        int[] loaded = workload.loadOrder(size, 42);
+        offHeap = new OffHeapRedBlack();
+        onHeap = new RedBlack<>();
+        for (int key : loaded) {
+            offHeap.insert(key);
+            onHeap.insert((long) key);
+        }
+
+        int[] probes = workload.probes(loaded, PROBES, 7);
+        hits = new long[PROBES];
+        misses = new long[PROBES];
+        boxedHits = new Long[PROBES];
+        boxedMisses = new Long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            hits[i] = probes[i];
+            misses[i] = probes[i] + 1;
+            boxedHits[i] = hits[i];
+            boxedMisses[i] = misses[i];
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        offHeap.close();
+    }
+
+    private int next() {
+        return cursor++ & (PROBES - 1);
+    }
+
+    @Benchmark
+    public boolean offHeapFind() {
+        return offHeap.find(hits[next()]);
+    }
+
+    @Benchmark
+    public boolean onHeapFind() {
+        return onHeap.find(boxedHits[next()]);
+    }
+
+    @Benchmark
+    public void offHeapInsertDelete() {
+        long key = misses[next()];
+        offHeap.insert(key);
+        offHeap.delete(key);
+    }
+
+    @Benchmark
+    public void onHeapInsertDelete() {
+        Long key = boxedMisses[next()];
+        onHeap.insert(key);
+        onHeap.delete(key);
+    }
+}
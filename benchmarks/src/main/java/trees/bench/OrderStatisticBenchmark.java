@@ -0,0 +1,144 @@
+/*
+Percentile queries on changing data: AVL order statistics against a sorted int array
+Each trial loads size keys (0, 2, 4, ...), then every operation first toggles a random key
+in [0, 2 * size) (deleted if present, inserted if not) and then queries:
+    1. avlPercentile / arrayPercentile: select the key at a random percentile
+    2. avlCountRange / arrayCountRange: count the keys between two random bounds
+The sorted array answers queries in O(1) / O(log n) but pays O(n) shifting per update,
+the AVL pays O(log n) for both.
+Run with: java -jar benchmarks/target/benchmarks.jar OrderStatisticBenchmark -p size=1000,1000000
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.AVL;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class OrderStatisticBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private AVL<Integer> avl;
+    //sorted keys in sorted[0..count)
+    private int[] sorted;
+    private int count;
+
+    //updates[i] is moved in or out of both structures, queries are random percentiles / bounds
+    private Integer[] updates;
+    private int[] percentiles;
+    private Integer[] bounds;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void load() {
+        int[] loaded = Workload.RANDOM.loadOrder(size, 42);
+        avl = new AVL<>();
+        for (int key : loaded) {
+            avl.insert(key);
+        }
+        sorted = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = 2 * i;
+        }
+        count = size;
+
+        Random random = new Random(7);
+        updates = new Integer[TreeBenchmark.PROBES];
+        percentiles = new int[TreeBenchmark.PROBES];
+        bounds = new Integer[TreeBenchmark.PROBES];
+        for (int i = 0; i < TreeBenchmark.PROBES; i++) {
+            updates[i] = random.nextInt(2 * size);
+            percentiles[i] = random.nextInt(100);
+            bounds[i] = random.nextInt(2 * size);
+        }
+    }
+
+    private int next() {
+        return cursor++ & (TreeBenchmark.PROBES - 1);
+    }
+
+    //half the toggled key space is loaded, so the size drifts around its starting value
+    private void updateAVL(Integer key) {
+        if (avl.find(key)) {
+            avl.delete(key);
+        } else {
+            avl.insert(key);
+        }
+    }
+
+    private void updateArray(int key) {
+        int i = Arrays.binarySearch(sorted, 0, count, key);
+        if (i >= 0) {
+            System.arraycopy(sorted, i + 1, sorted, i, count - i - 1);
+            count--;
+        } else {
+            i = -i - 1;
+            if (count == sorted.length) {
+                sorted = Arrays.copyOf(sorted, 2 * count);
+            }
+            System.arraycopy(sorted, i, sorted, i + 1, count - i);
+            sorted[i] = key;
+            count++;
+        }
+    }
+
+    //number of keys in [from, to)
+    private int arrayCount(int from, int to) {
+        int low = Arrays.binarySearch(sorted, 0, count, from);
+        int high = Arrays.binarySearch(sorted, 0, count, to);
+        low = (low >= 0) ? low : -low - 1;
+        high = (high >= 0) ? high : -high - 1;
+        return Math.max(0, high - low);
+    }
+
+    @Benchmark
+    public Integer avlPercentile() {
+        int i = next();
+        updateAVL(updates[i]);
+        return avl.select((int) ((long) avl.size() * percentiles[i] / 100));
+    }
+
+    @Benchmark
+    public int arrayPercentile() {
+        int i = next();
+        updateArray(updates[i]);
+        return sorted[(int) ((long) count * percentiles[i] / 100)];
+    }
+
+    @Benchmark
+    public int avlCountRange() {
+        int i = next();
+        updateAVL(updates[i]);
+        return avl.countRange(bounds[i], bounds[(i + 1) & (TreeBenchmark.PROBES - 1)]);
+    }
+
+    @Benchmark
+    public int arrayCountRange() {
+        int i = next();
+        updateArray(updates[i]);
+        return arrayCount(bounds[i], bounds[(i + 1) & (TreeBenchmark.PROBES - 1)]);
+    }
+}
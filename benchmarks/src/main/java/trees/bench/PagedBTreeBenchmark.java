@@ -0,0 +1,95 @@
+/*
+Lookups in a PagedBTree file, with the page cache cold and warm
+The file holds size keys (0, 2, 4, ...) and is built once per size in java.io.tmpdir, then reused by later runs.
+The fork runs with a 256 MiB heap; at 20M keys the file is about 480 MiB, bigger than the heap.
+    1. find: look up a loaded key through a cache of cachePages pages: 64 pages is mostly cold,
+       32768 pages (128 MiB) holds every internal page and about a quarter of the leaves once warmed up
+    2. openAndFind: open the file with an empty cache and look up one key, the cost of a cold start
+Scores are per lookup. The operating system's file cache is not dropped, so cold here means cold in the tree's own cache.
+Run with: java -jar benchmarks/target/benchmarks.jar PagedBTreeBenchmark -p size=50000000
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.PagedBTree;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx256m"})
+public class PagedBTreeBenchmark {
+
+    @Param({"20000000"})
+    public int size;
+
+    @Param({"64", "32768"})
+    public int cachePages;
+
+    private Path file;
+    private PagedBTree tree;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        file = Path.of(System.getProperty("java.io.tmpdir"), "paged-btree-" + size + ".db");
+        if (Files.exists(file)) {
+            try (PagedBTree existing = new PagedBTree(file, 64)) {
+                if (existing.size() != size) {
+                    Files.delete(file);
+                }
+            } catch (IOException e) {
+                Files.delete(file);
+            }
+        }
+        if (!Files.exists(file)) {
+            // ascending keys only ever touch the right edge, so building stays fast with a small cache
+            try (PagedBTree building = new PagedBTree(file, 64)) {
+                for (int i = 0; i < size; i++) {
+                    building.insert(2L * i);
+                }
+            }
+        }
+
+        tree = new PagedBTree(file, cachePages);
+        random = new SplittableRandom(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        tree.close();
+    }
+
+    @Benchmark
+    public boolean find() {
+        return tree.find(2L * random.nextInt(size));
+    }
+
+    @Benchmark
+    public boolean openAndFind() throws IOException {
+        try (PagedBTree cold = new PagedBTree(file, 64)) {
+            return cold.find(2L * random.nextInt(size));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+Range scan throughput of the BalanceTree cursors
+Each trial loads a tree with keys 0, 2, 4, ... in random order, then measures:
+    1. scan: walk length keys ascending from a random start key
+    2. scanDescending: walk length keys descending from a random start key
+Both sum the keys so the walk cannot be optimised away; divide by length for the per-key cost
+Run with: java -jar benchmarks/target/benchmarks.jar RangeBenchmark -p tree=AVL,RedBlack -p length=10,100000
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.BalanceTree;
+
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class RangeBenchmark {
+
+    @Param({"AVL", "Splay", "RedBlack", "Tree234"})
+    public String tree;
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"10", "1000", "100000"})
+    public int length;
+
+    private BalanceTree<Integer> balanceTree;
+    private Integer[] starts;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void load() {
+        balanceTree = Trees.create(tree);
+        for (int key : Workload.RANDOM.loadOrder(size, 42)) {
+            balanceTree.insert(key);
+        }
+
+        // start keys leave room for length keys on either side, so every scan has the same length
+        Random random = new Random(7);
+        starts = new Integer[TreeBenchmark.PROBES];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = 2 * (length + random.nextInt(size - 2 * length));
+        }
+    }
+
+    private Integer nextStart() {
+        return starts[cursor++ & (TreeBenchmark.PROBES - 1)];
+    }
+
+    @Benchmark
+    public long scan() {
+        return sum(balanceTree.range(nextStart(), true, null, false, false));
+    }
+
+    @Benchmark
+    public long scanDescending() {
+        return sum(balanceTree.range(null, false, nextStart(), true, true));
+    }
+
+    private long sum(Iterator<Integer> keys) {
+        long sum = 0;
+        for (int i = 0; i < length && keys.hasNext(); i++) {
+            sum += keys.next();
+        }
+        return sum;
+    }
+}
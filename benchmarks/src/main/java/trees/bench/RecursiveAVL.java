@@ -1,132 +1,83 @@
 /*
-Implementation of the AVL Tree using the BalanceTree interface
-Plus two additional Methods heightAVL and printAVL
-HeightAVL: Prints the height of the node containing E item
-printAVL: Print the item and the corresponding balance factor for the item.
+The recursive AVL insert/find/delete that AVL used before it went iterative
+Kept only as the "before" side of AVLBenchmark, with the old delete's fall-through bug fixed
+(it used to delete the current node as well after recursing into the left subtree).
  */
 
-import javax.lang.model.type.MirroredTypeException;
-import javax.swing.*;
-import java.security.PrivateKey;
+package trees.bench;
 
-public class AVL<E extends Comparable<E>> implements BalanceTree<E> {
+import trees.BalanceTree;
+import trees.TreeStats;
 
-    //MARK: - Setup ------------------------------------------------------------------
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+public class RecursiveAVL<E extends Comparable<E>> implements BalanceTree<E> {
 
-    //root of the AVL
     private Node<E> root;
+    private int size;
 
-    //Node Class for AVL
-    private static class Node<E>{
+    private static class Node<E> {
         E element;
         Node<E> right;
         Node<E> left;
         int height;
 
-        //Constructor for Node class
         public Node(E element) {
             this.element = element;
-            this.left = null;
-            this.right = null;
-            this.height = 0;
         }
     }
 
-    //Constructor for AVL class
-    public AVL() {
-        root = null;
-    }
-
-    //MARK: - Helper Methods ------------------------------------------------------------------
-
-    //Get the height of the Node
     private int height(Node<E> node) {
-        //if the node is null return -1
         return (node == null) ? -1 : node.height;
     }
 
-    //Calc the Balance Factor
     private int getBalance(Node<E> node) {
         if (node == null) return 0;
         return height(node.left) - height(node.right);
     }
 
-    //Right Rotation
     private Node<E> rightRotate(Node<E> y) {
         Node<E> x = y.left;
         Node<E> temp = x.right;
-
-        // do the rotation
-        // noinspection SuspiciousAssignment
         x.right = y;
-        y.left =  temp;
-
-        //Change the heights
+        y.left = temp;
         y.height = Math.max(height(y.left), height(y.right)) + 1;
         x.height = Math.max(height(x.left), height(x.right)) + 1;
-
         return x;
     }
 
-    //Left Rotation
     private Node<E> leftRotation(Node<E> x) {
         Node<E> y = x.right;
         Node<E> temp = y.left;
-
-        //Perform Rotation
         y.left = x;
         x.right = temp;
-
-        //Update the heights
         x.height = Math.max(height(x.left), height(x.right)) + 1;
         y.height = Math.max(height(y.left), height(y.right)) + 1;
-
         return y;
     }
 
-    //Find the Node with the minimum value
     private Node<E> minValueNode(Node<E> node) {
         Node<E> curr = node;
-        while(curr.left != null)
+        while (curr.left != null)
             curr = curr.left;
         return curr;
     }
 
-    private Node<E> findNode(Node<E> node, E item) {
-        if (node == null)
-            return null;
-
-        int cmp = item.compareTo(node.element);
-        if (cmp < 0)
-            return findNode(node.left, item);
-        else if (cmp > 0)
-            return findNode(node.right, item);
-        else
-            return node;
-    }
-
-    private void printAVL(Node<E> node,  StringBuilder sb) {
-        if(node != null) {
-            printAVL(node.left, sb);
-            sb.append("(").append(node.element).append(",").append(getBalance(node)).append(")");
-            printAVL(node.right, sb);
-        }
-    }
-
-    //MARK: - Interface Methods ------------------------------------------------------------------
     @Override
     public void insert(E item) {
         root = insert(root, item);
     }
 
-    //Insert Method
-    private Node<E> insert(Node<E> node,  E item) {
-        // BST Insert
-        if (node == null)
+    private Node<E> insert(Node<E> node, E item) {
+        if (node == null) {
+            size++;
             return new Node<>(item);
+        }
 
         int cmp = item.compareTo(node.element);
-
         if (cmp < 0)
             node.left = insert(node.left, item);
         else if (cmp > 0)
@@ -134,34 +85,21 @@ public class AVL<E extends Comparable<E>> implements BalanceTree<E> {
         else
             return node;
 
-        //update height of the curr
         node.height = 1 + Math.max(height(node.left), height(node.right));
-
-        // Balance Factor
         int balance = getBalance(node);
 
-        // LL
-        if (balance > 1 && item.compareTo(node.left.element) < 0) {
+        if (balance > 1 && item.compareTo(node.left.element) < 0)
             return rightRotate(node);
-        }
-
-        // RR
-        if (balance < -1 && item.compareTo(node.right.element) > 0) {
+        if (balance < -1 && item.compareTo(node.right.element) > 0)
             return leftRotation(node);
-        }
-
-        // LR
         if (balance > 1 && item.compareTo(node.left.element) > 0) {
             node.left = leftRotation(node.left);
             return rightRotate(node);
         }
-
-        // RL
         if (balance < -1 && item.compareTo(node.right.element) < 0) {
             node.right = rightRotate(node.right);
             return leftRotation(node);
         }
-
         return node;
     }
 
@@ -170,8 +108,12 @@ public class AVL<E extends Comparable<E>> implements BalanceTree<E> {
         return find(root, item);
     }
 
-    // Find Method
-    private boolean find(Node<E> node,  E item) {
+    @Override
+    public boolean findIsReadOnly() {
+        return true;
+    }
+
+    private boolean find(Node<E> node, E item) {
         if (node == null)
             return false;
 
@@ -190,69 +132,44 @@ public class AVL<E extends Comparable<E>> implements BalanceTree<E> {
     }
 
     private Node<E> delete(Node<E> root, E item) {
-        // BST Delete
-        if (root == null) {
+        if (root == null)
             return root;
-        }
 
         int cmp = item.compareTo(root.element);
         if (cmp < 0)
             root.left = delete(root.left, item);
-        if (cmp > 0)
+        else if (cmp > 0)
             root.right = delete(root.right, item);
         else {
-            // One or no children
             if ((root.left == null) || (root.right == null)) {
-                Node<E> temp = null;
-                if (temp == root.left)
-                    temp = root.right;
-                else
-                    temp = root.left;
-
-                // No child
-                if (temp == null) {
-                    temp = root;
-                    root = null;
-                } else // One child
-                    root = temp;
+                root = (root.left == null) ? root.right : root.left;
+                size--;
             } else {
-                // inorder successor
                 Node<E> temp = minValueNode(root.right);
                 root.element = temp.element;
                 root.right = delete(root.right, temp.element);
             }
         }
 
-        //If one node only
         if (root == null)
             return root;
 
-        //update height
-        root.height = Math.max(height(root.left), height(root.right))+ 1;
-
+        root.height = Math.max(height(root.left), height(root.right)) + 1;
         int balance = getBalance(root);
 
-        //LL
         if (balance > 1 && getBalance(root.left) >= 0)
             return rightRotate(root);
-
-        // LR
-        if (balance > 1 && getBalance(root.left) < 0 ) {
+        if (balance > 1 && getBalance(root.left) < 0) {
             root.left = leftRotation(root.left);
             return rightRotate(root);
         }
-
-        // RR
         if (balance < -1 && getBalance(root.right) <= 0)
             return leftRotation(root);
-
-        // RL
         if (balance < -1 && getBalance(root.right) > 0) {
             root.right = rightRotate(root.right);
             return leftRotation(root);
         }
         return root;
-
     }
 
     @Override
@@ -260,20 +177,43 @@ public class AVL<E extends Comparable<E>> implements BalanceTree<E> {
         return height(root);
     }
 
-    //MARK: - Additional Methods ------------------------------------------------------------------
+    @Override
+    public int size() {
+        return size;
+    }
 
-    public void heightAVL(E item) {
-        Node<E> node = findNode(root, item);
+    @Override
+    public TreeStats stats() {
+        TreeStats.Builder builder = new TreeStats.Builder();
+        stats(root, 0, builder);
+        return builder.build();
+    }
+
+    private void stats(Node<E> node, int depth, TreeStats.Builder builder) {
         if (node != null) {
-            System.out.println("node height = " + node.height);
-        } else {
-            System.out.println("Item not found.");
+            builder.node(depth, 1);
+            stats(node.left, depth + 1, builder);
+            stats(node.right, depth + 1, builder);
+        }
+    }
+
+    //Not benchmarked, so the range is simply collected up front
+    @Override
+    public Iterator<E> range(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+        List<E> out = new ArrayList<>();
+        range(root, from, fromInclusive, to, toInclusive, out);
+        if (descending) {
+            Collections.reverse(out);
         }
+        return out.iterator();
     }
 
-    public void printAVL() {
-        StringBuilder sb = new StringBuilder();
-        printAVL(root, sb);
-        System.out.print(sb.toString());
+    private void range(Node<E> node, E from, boolean fromInclusive, E to, boolean toInclusive, List<E> out) {
+        if (node == null) return;
+        int low = (from == null) ? 1 : node.element.compareTo(from);
+        int high = (to == null) ? -1 : node.element.compareTo(to);
+        if (low > 0) range(node.left, from, fromInclusive, to, toInclusive, out);
+        if ((low > 0 || (low == 0 && fromInclusive)) && (high < 0 || (high == 0 && toInclusive))) out.add(node.element);
+        if (high < 0) range(node.right, from, fromInclusive, to, toInclusive, out);
     }
 }
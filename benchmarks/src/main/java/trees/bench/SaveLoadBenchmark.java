@@ -0,0 +1,117 @@
+/*
+Snapshot save / load of an AVL or RedBlack of size random keys, against Java serialization
+    1. save / load: the binary snapshot (AVL.save / load, RedBlack.save / load), load rebuilds the shape in one pass
+    2. serialize / deserialize: ObjectOutputStream of the keys in order (the trees are not Serializable),
+       then ObjectInputStream and one insert per key, which is how a tree is rebuilt at startup today
+The file sizes of both formats are printed at the end of each trial.
+Run with: java -jar benchmarks/target/benchmarks.jar SaveLoadBenchmark -p size=10000000
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.AVL;
+import trees.BalanceTree;
+import trees.KeyCodec;
+import trees.RedBlack;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class SaveLoadBenchmark {
+
+    @Param({"AVL", "RedBlack"})
+    public String tree;
+
+    @Param({"1000000"})
+    public int size;
+
+    private BalanceTree<Integer> balanceTree;
+    private Path snapshot;
+    private Path serialized;
+
+    @Setup(Level.Trial)
+    public void fill() throws IOException {
+        balanceTree = Trees.create(tree);
+        for (int key : Workload.RANDOM.loadOrder(size, 42)) {
+            balanceTree.insert(key);
+        }
+
+        snapshot = Files.createTempFile("tree", ".snapshot");
+        serialized = Files.createTempFile("tree", ".ser");
+        // both files exist before the first load
+        save();
+        serialize();
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        System.out.println("\nsnapshot: " + Files.size(snapshot) + " bytes, serialized: " + Files.size(serialized) + " bytes");
+        Files.delete(snapshot);
+        Files.delete(serialized);
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        if (balanceTree instanceof AVL) {
+            ((AVL<Integer>) balanceTree).save(snapshot, KeyCodec.INTEGER);
+        } else {
+            ((RedBlack<Integer>) balanceTree).save(snapshot, KeyCodec.INTEGER);
+        }
+    }
+
+    @Benchmark
+    public BalanceTree<Integer> load() throws IOException {
+        return tree.equals("AVL") ? AVL.load(snapshot, KeyCodec.INTEGER) : RedBlack.load(snapshot, KeyCodec.INTEGER);
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        List<Integer> keys = new ArrayList<>(balanceTree.size());
+        balanceTree.ascending().forEachRemaining(keys::add);
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(serialized)))) {
+            out.writeObject(keys);
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public BalanceTree<Integer> deserialize() throws IOException, ClassNotFoundException {
+        List<Integer> keys;
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(serialized)))) {
+            keys = (List<Integer>) in.readObject();
+        }
+        BalanceTree<Integer> loaded = Trees.create(tree);
+        for (Integer key : keys) {
+            loaded.insert(key);
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+Merging two AVLs of size keys each: a holds 0, 2, 4, ... and b holds 0, 3, 6, ... (a third of them shared)
+    1. insertLoop: insert every key of b into a, one at a time
+    2. union / intersection / difference: the join-based set operations, on a ForkJoinPool of parallelism workers
+Both trees are rebuilt before every call, since the set operations use up their inputs.
+Single-shot, compare parallelism=1 with higher values for the speedup (it can't exceed the cores the machine has).
+Run with: java -jar benchmarks/target/benchmarks.jar SetOperationBenchmark -p size=10000000 -p parallelism=1,16
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.AVL;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx12g"})
+public class SetOperationBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"1", "4", "16"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private AVL<Integer> a;
+    private AVL<Integer> b;
+
+    @Setup(Level.Trial)
+    public void pool() {
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void trees() {
+        a = AVL.buildFromSorted(IntStream.range(0, size).map(i -> 2 * i));
+        b = AVL.buildFromSorted(IntStream.range(0, size).map(i -> 3 * i));
+    }
+
+    @Benchmark
+    public AVL<Integer> insertLoop() {
+        b.ascending().forEachRemaining(a::insert);
+        return a;
+    }
+
+    @Benchmark
+    public AVL<Integer> union() {
+        return AVL.union(a, b, pool);
+    }
+
+    @Benchmark
+    public AVL<Integer> intersection() {
+        return AVL.intersection(a, b, pool);
+    }
+
+    @Benchmark
+    public AVL<Integer> difference() {
+        return AVL.difference(a, b, pool);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+Writes with point-in-time snapshots taken every writesPerSnapshot writes, which is what report generators do
+Each trial loads size keys (0, 2, 4, ...) in random order, then each call inserts or deletes one random key
+and takes a snapshot when it is due, keeping the latest one alive like a running report would:
+    1. copy: AVL, the snapshot is a full copy (AVL.buildFromSorted over the ascending cursor), O(n)
+    2. persistent: PersistentAVL, the snapshot shares the current root, O(1), each write copies O(log n) nodes
+Scores are per write, including the amortised share of the snapshot.
+Run with: java -jar benchmarks/target/benchmarks.jar SnapshotBenchmark -p writesPerSnapshot=1,1000
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.AVL;
+import trees.BalanceTree;
+import trees.PersistentAVL;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class SnapshotBenchmark {
+
+    @Param({"copy", "persistent"})
+    public String tree;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"1", "100", "10000"})
+    public int writesPerSnapshot;
+
+    private BalanceTree<Integer> balanceTree;
+    private BalanceTree<Integer> snapshot;
+    private Integer[] keys;
+    private SplittableRandom random;
+    private int writes;
+
+    @Setup(Level.Trial)
+    public void load() {
+        balanceTree = tree.equals("copy") ? new AVL<>() : new PersistentAVL<>();
+        for (int key : Workload.RANDOM.loadOrder(size, 42)) {
+            balanceTree.insert(key);
+        }
+
+        // boxed once up front, so the writes don't measure allocation of the key
+        keys = new Integer[2 * size];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i;
+        }
+        random = new SplittableRandom(7);
+    }
+
+    @Benchmark
+    public BalanceTree<Integer> write() {
+        Integer key = keys[random.nextInt(keys.length)];
+        if (random.nextBoolean()) {
+            balanceTree.insert(key);
+        } else {
+            balanceTree.delete(key);
+        }
+
+        if (++writes == writesPerSnapshot) {
+            writes = 0;
+            snapshot = tree.equals("copy")
+                    ? AVL.buildFromSorted(balanceTree.ascending(), balanceTree.size())
+                    : ((PersistentAVL<Integer>) balanceTree).snapshot();
+        }
+        return snapshot;
+    }
+}
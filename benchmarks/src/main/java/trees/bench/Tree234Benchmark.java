@@ -0,0 +1,81 @@
+/*
+Scaling benchmarks for the 2-3-4 tree at 1M+ keys
+insert: time to insert BATCH new keys into a tree that already holds size random keys
+churn: delete BATCH loaded keys and insert BATCH new ones, one of each per step (delete-heavy, size stays the same)
+With O(log n) inserts and deletes the time per batch should only grow slowly as size doubles.
+Any other tree can be compared with -p tree=AVL etc.
+Run with: java -jar benchmarks/target/benchmarks.jar Tree234Benchmark
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.BalanceTree;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = Tree234Benchmark.BATCH)
+@Measurement(iterations = 5, batchSize = Tree234Benchmark.BATCH)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class Tree234Benchmark {
+
+    //keys inserted per measured batch
+    static final int BATCH = 100_000;
+
+    @Param({"Tree234"})
+    public String tree;
+
+    @Param({"1000000", "2000000", "4000000", "8000000"})
+    public int size;
+
+    private BalanceTree<Integer> balanceTree;
+    private Integer[] newKeys;
+    private Integer[] oldKeys;
+    private int cursor;
+
+    //rebuilt every iteration so each batch starts from a tree of exactly size keys
+    @Setup(Level.Iteration)
+    public void load() {
+        int[] loaded = Workload.RANDOM.loadOrder(size, 42);
+        balanceTree = Trees.create(tree);
+        for (int key : loaded) {
+            balanceTree.insert(key);
+        }
+
+        // odd keys are never loaded
+        int[] probes = Workload.RANDOM.loadOrder(BATCH, 7);
+        newKeys = new Integer[BATCH];
+        oldKeys = new Integer[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            newKeys[i] = (int) ((long) probes[i] * size / (2L * BATCH)) * 2 + 1;
+            oldKeys[i] = loaded[i];
+        }
+        cursor = 0;
+    }
+
+    @Benchmark
+    public void insert() {
+        balanceTree.insert(newKeys[cursor++]);
+    }
+
+    @Benchmark
+    public void churn() {
+        balanceTree.delete(oldKeys[cursor]);
+        balanceTree.insert(newKeys[cursor++]);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+Steady-state throughput of the BalanceTree operations
+Each trial loads a tree with size keys in the workload's order, then measures:
+    1. find: look up a loaded key
+    2. findMiss: look up a key that is not in the tree
+    3. insertDelete: insert a missing key and delete it again (tree size stays the same)
+    4. deleteInsert: delete a loaded key and insert it back (delete-heavy, tree size stays the same)
+    5. height: the height of the loaded tree
+Run with: java -jar benchmarks/target/benchmarks.jar TreeBenchmark -p tree=AVL,RedBlack -p size=1000,1000000
+Add -jvmArgsAppend -Dtrees.metrics=true to print the comparisons, rotations, recolorings, splits, merges and borrows
+per operation (see TreeMetrics) at the end of each trial, counted from after the load.
+ */
+
+package trees.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import trees.BalanceTree;
+import trees.TreeMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class TreeBenchmark {
+
+    //number of pre-generated probe keys, a power of two so the cursor can wrap with a mask
+    static final int PROBES = 1 << 16;
+
+    @Param({"AVL", "Splay", "RedBlack", "Tree234"})
+    public String tree;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "RANDOM", "ZIPF"})
+    public Workload workload;
+
+    private BalanceTree<Integer> balanceTree;
+    private Integer[] hits;
+    private Integer[] misses;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void load() {
+        int[] loaded = workload.loadOrder(size, 42);
+        balanceTree = Trees.create(tree);
+        for (int key : loaded) {
+            balanceTree.insert(key);
+        }
+
+        int[] probes = workload.probes(loaded, PROBES, 7);
+        hits = new Integer[PROBES];
+        misses = new Integer[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            hits[i] = probes[i];
+            misses[i] = probes[i] + 1;
+        }
+        TreeMetrics.reset();
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        if (TreeMetrics.ENABLED) {
+            System.out.println();
+            System.out.println(tree + " " + workload + " " + size + " " + TreeMetrics.snapshot());
+        }
+    }
+
+    private int next() {
+        return cursor++ & (PROBES - 1);
+    }
+
+    @Benchmark
+    public boolean find() {
+        return balanceTree.find(hits[next()]);
+    }
+
+    @Benchmark
+    public boolean findMiss() {
+        return balanceTree.find(misses[next()]);
+    }
+
+    @Benchmark
+    public void insertDelete() {
+        Integer key = misses[next()];
+        balanceTree.insert(key);
+        balanceTree.delete(key);
+    }
+
+    @Benchmark
+    public void deleteInsert() {
+        Integer key = hits[next()];
+        balanceTree.delete(key);
+        balanceTree.insert(key);
+    }
+
+    @Benchmark
+    public int height() {
+        return balanceTree.height();
+    }
+}
@@ -0,0 +1,37 @@
+/*
+Factory for the BalanceTree implementations used by the benchmarks
+create: Returns a new empty tree for the given name (AVL, Splay, RedBlack, Tree234, ConcurrentAVL, ShardedAVL)
+        or BTree followed by its order, for example BTree64
+ */
+
+package trees.bench;
+
+import trees.AVL;
+import trees.BTree;
+import trees.BalanceTree;
+import trees.ConcurrentAVL;
+import trees.RedBlack;
+import trees.ShardedTree;
+import trees.Splay;
+import trees.Tree234;
+
+public final class Trees {
+
+    private Trees() {
+    }
+
+    public static <E extends Comparable<E>> BalanceTree<E> create(String name) {
+        switch (name) {
+            case "AVL": return new AVL<>();
+            case "Splay": return new Splay<>();
+            case "RedBlack": return new RedBlack<>();
+            case "Tree234": return new Tree234<>();
+            case "ConcurrentAVL": return new ConcurrentAVL<>();
+            case "ShardedAVL": return new ShardedTree<>(AVL::new);
+            default:
+                if (name.startsWith("BTree"))
+                    return new BTree<>(Integer.parseInt(name.substring("BTree".length())));
+                throw new IllegalArgumentException("unknown tree: " + name);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+Key generators for the benchmarks
+Every loaded key is even (2 * i for i in [0, size)), so key + 1 is always a miss.
+    1. SEQUENTIAL: keys are loaded and probed in ascending order
+    2. RANDOM: keys are loaded in shuffled order and probed uniformly
+    3. ZIPF: keys are loaded in shuffled order and probed with a Zipf(0.99) skew
+ */
+
+package trees.bench;
+
+import java.util.SplittableRandom;
+
+public enum Workload {
+    SEQUENTIAL,
+    RANDOM,
+    ZIPF;
+
+    //Skew used by YCSB for its zipfian request distribution
+    static final double ZIPF_THETA = 0.99;
+
+    //Order the keys are inserted in when the tree is loaded
+    public int[] loadOrder(int size, long seed) {
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = 2 * i;
+        }
+        if (this != SEQUENTIAL) {
+            shuffle(keys, new SplittableRandom(seed));
+        }
+        return keys;
+    }
+
+    //Keys looked up / deleted by the benchmark, drawn from the loaded keys
+    //loaded must be the array returned by loadOrder
+    public int[] probes(int[] loaded, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int size = loaded.length;
+        int[] probes = new int[count];
+
+        switch (this) {
+            case SEQUENTIAL:
+                int start = random.nextInt(size);
+                for (int i = 0; i < count; i++) {
+                    probes[i] = loaded[(start + i) % size];
+                }
+                break;
+            case RANDOM:
+                for (int i = 0; i < count; i++) {
+                    probes[i] = loaded[random.nextInt(size)];
+                }
+                break;
+            case ZIPF:
+                // loaded is already shuffled, so the hot ranks are spread over the key space
+                Zipf zipf = new Zipf(size, ZIPF_THETA);
+                for (int i = 0; i < count; i++) {
+                    probes[i] = loaded[zipf.next(random)];
+                }
+                break;
+        }
+        return probes;
+    }
+
+    private static void shuffle(int[] keys, SplittableRandom random) {
+        for (int i = keys.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = temp;
+        }
+    }
+
+    //Zipf rank generator from Gray et al., "Quickly Generating Billion-Record Synthetic Databases"
+    static final class Zipf {
+        private final int n;
+        private final double theta;
+        private final double alpha;
+        private final double zetaN;
+        private final double eta;
+
+        Zipf(int n, double theta) {
+            this.n = n;
+            this.theta = theta;
+            this.alpha = 1.0 / (1.0 - theta);
+            this.zetaN = zeta(n, theta);
+            this.eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+        }
+
+        private static double zeta(int n, double theta) {
+            double sum = 0;
+            for (int i = 1; i <= n; i++) {
+                sum += 1 / Math.pow(i, theta);
+            }
+            return sum;
+        }
+
+        //Returns a rank in [0, n), rank 0 being the most frequent
+        int next(SplittableRandom random) {
+            double u = random.nextDouble();
+            double uz = u * zetaN;
+            if (uz < 1) {
+                return 0;
+            }
+            if (uz < 1 + Math.pow(0.5, theta)) {
+                return Math.min(1, n - 1);
+            }
+            int rank = (int) (n * Math.pow(eta * u - eta + 1, alpha));
+            return Math.min(rank, n - 1);
+        }
+    }
+}
@@ -0,0 +1,882 @@
+/*
+Implementation of the AVL Tree using the BalanceTree interface
+Plus two additional Methods heightAVL and printAVL
+HeightAVL: Prints the height of the node containing E item
+printAVL: Print the item and the corresponding balance factor for the item.
+insert, find and delete are iterative: the descent is recorded in a reusable path array and
+retracing stops as soon as a subtree's height is unchanged after insert / delete.
+Every node also stores the size of its subtree, which gives O(log n) order statistics:
+rank: Number of elements smaller than item
+select: The element at a given position in sorted order (0 is the smallest)
+countRange: Number of elements between two bounds
+buildFromSorted: Builds a perfectly balanced tree from strictly ascending input in O(n)
+insertAll starts each descent from the deepest node on the previous path that can hold the next key,
+findAll splits the batch at each node, so the top of the tree is visited once per batch, not once per key.
+join / split: Join two trees around a middle element, or cut one at a key, in O(log n) by reusing the rotations
+union / intersection / difference: Join-based set operations (Blelloch, Ferizovic and Sun), O(m log(n/m + 1))
+for trees of size m <= n. The two halves under each split run in parallel on a ForkJoinPool.
+They reuse the nodes of both inputs, which are left empty.
+save / load: Write the tree to a compact binary snapshot (see SnapshotFile) and read it back through a memory map,
+rebuilding the same shape in one pass with no comparisons or rotations; heights and sizes are recomputed on the way.
+ */
+
+package trees;
+
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+public class AVL<E extends Comparable<E>> implements BalanceTree<E> {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    //AVL height is at most ~1.44 log2(n), so 64 levels covers any tree that fits in memory
+    private static final int MAX_DEPTH = 64;
+    //set operations on fewer nodes than this run sequentially, forking would cost more than it saves
+    private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+    //root of the AVL
+    private Node<E> root;
+
+    //nodes on the path from the root to the last node visited by insert/delete
+    private final Node<E>[] path;
+    //insertAll only: upper[i] is the exclusive upper bound of the keys under path[i], null for none
+    private final Object[] upper;
+
+    //Node Class for AVL
+    private static class Node<E>{
+        E element;
+        Node<E> right;
+        Node<E> left;
+        int height;
+        //number of nodes in the subtree rooted here, including this one
+        int count;
+
+        //Constructor for Node class
+        public Node(E element) {
+            this.element = element;
+            this.left = null;
+            this.right = null;
+            this.height = 0;
+            this.count = 1;
+        }
+    }
+
+    //Constructor for AVL class
+    @SuppressWarnings("unchecked")
+    public AVL() {
+        root = null;
+        path = (Node<E>[]) new Node[MAX_DEPTH];
+        upper = new Object[MAX_DEPTH];
+    }
+
+    //MARK: - Helper Methods ------------------------------------------------------------------
+
+    //Get the height of the Node
+    private static <E> int height(Node<E> node) {
+        //if the node is null return -1
+        return (node == null) ? -1 : node.height;
+    }
+
+    //Get the subtree size of the Node
+    private static <E> int count(Node<E> node) {
+        return (node == null) ? 0 : node.count;
+    }
+
+    //Calc the Balance Factor
+    private static <E> int getBalance(Node<E> node) {
+        if (node == null) return 0;
+        return height(node.left) - height(node.right);
+    }
+
+    //Right Rotation
+    private static <E> Node<E> rightRotate(Node<E> y) {
+        TreeMetrics.count(TreeMetrics.Event.ROTATION);
+        Node<E> x = y.left;
+        Node<E> temp = x.right;
+
+        // do the rotation
+        // noinspection SuspiciousAssignment
+        x.right = y;
+        y.left =  temp;
+
+        //Change the heights and subtree sizes
+        y.height = Math.max(height(y.left), height(y.right)) + 1;
+        x.height = Math.max(height(x.left), height(x.right)) + 1;
+        y.count = count(y.left) + count(y.right) + 1;
+        x.count = count(x.left) + count(x.right) + 1;
+
+        return x;
+    }
+
+    //Left Rotation
+    private static <E> Node<E> leftRotation(Node<E> x) {
+        TreeMetrics.count(TreeMetrics.Event.ROTATION);
+        Node<E> y = x.right;
+        Node<E> temp = y.left;
+
+        //Perform Rotation
+        y.left = x;
+        x.right = temp;
+
+        //Update the heights and subtree sizes
+        x.height = Math.max(height(x.left), height(x.right)) + 1;
+        y.height = Math.max(height(y.left), height(y.right)) + 1;
+        x.count = count(x.left) + count(x.right) + 1;
+        y.count = count(y.left) + count(y.right) + 1;
+
+        return y;
+    }
+
+    //Never more than MAX_DEPTH steps, so an optimistic reader racing a writer (see ConcurrentBalanceTree)
+    //cannot loop on a half-done rotation, its result is thrown away anyway
+    private Node<E> findNode(Node<E> node, E item) {
+        for (int depth = 0; node != null && depth < MAX_DEPTH; depth++) {
+            int cmp = TreeMetrics.compare(item, node.element);
+            if (cmp < 0)
+                node = node.left;
+            else if (cmp > 0)
+                node = node.right;
+            else
+                return node;
+        }
+        return null;
+    }
+
+    //Point parent (or root when parent is null) at newChild instead of oldChild
+    private void replaceChild(Node<E> parent, Node<E> oldChild, Node<E> newChild) {
+        if (parent == null)
+            root = newChild;
+        else if (parent.left == oldChild)
+            parent.left = newChild;
+        else
+            parent.right = newChild;
+    }
+
+    //Rotate node back into balance if needed, returns the root of the subtree
+    private Node<E> rebalance(Node<E> node) {
+        int balance = getBalance(node);
+
+        // LL
+        if (balance > 1 && getBalance(node.left) >= 0)
+            return rightRotate(node);
+
+        // LR
+        if (balance > 1) {
+            node.left = leftRotation(node.left);
+            return rightRotate(node);
+        }
+
+        // RR
+        if (balance < -1 && getBalance(node.right) <= 0)
+            return leftRotation(node);
+
+        // RL
+        if (balance < -1) {
+            node.right = rightRotate(node.right);
+            return leftRotation(node);
+        }
+
+        return node;
+    }
+
+    //Add delta to the subtree size of every node on path[0..depth)
+    //done before retrace, which may stop early but the sizes change all the way up
+    private void updateCounts(int depth, int delta) {
+        for (int i = 0; i < depth; i++)
+            path[i].count += delta;
+    }
+
+    //Number of elements below item, or not above it when inclusive is set
+    private int rank(E item, boolean inclusive) {
+        int rank = 0;
+        Node<E> node = root;
+        while (node != null) {
+            int cmp = TreeMetrics.compare(item, node.element);
+            if (cmp < 0 || (cmp == 0 && !inclusive)) {
+                node = node.left;
+            } else {
+                rank += count(node.left) + 1;
+                if (cmp == 0)
+                    break;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    //Walk back up path[0..depth) fixing heights and balance
+    //stops at the first subtree whose height did not change, nothing above it can change either
+    //returns that index, path[0..index] is still the path to it (path[index] is the subtree root after any rotation)
+    private int retrace(int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            Node<E> node = path[i];
+            int oldHeight = node.height;
+
+            node.height = Math.max(height(node.left), height(node.right)) + 1;
+            Node<E> subtree = rebalance(node);
+
+            if (subtree != node) {
+                replaceChild(i > 0 ? path[i - 1] : null, node, subtree);
+                path[i] = subtree;
+            }
+
+            if (subtree.height == oldHeight)
+                return i;
+        }
+        return 0;
+    }
+
+    //Set bit i of found for every batch[i] (from <= i < to) in the subtree of node
+    //the node's element splits the batch, each half only goes down one side
+    private void findAll(Node<E> node, E[] batch, int from, int to, BitSet found) {
+        while (node != null && from < to) {
+            int i = SortedInput.search(batch, from, to, node.element);
+            int split = (i >= 0) ? i : -i - 1;
+            if (i >= 0)
+                found.set(i);
+
+            // recurse into the smaller half, loop on the larger one
+            int rightFrom = (i >= 0) ? split + 1 : split;
+            if (split - from < to - rightFrom) {
+                findAll(node.left, batch, from, split, found);
+                node = node.right;
+                from = rightFrom;
+            } else {
+                findAll(node.right, batch, rightFrom, to, found);
+                node = node.left;
+                to = split;
+            }
+        }
+    }
+
+    //Build a subtree of the next size elements of input, middle element at the root
+    //the left half gets the smaller share, so sibling heights differ by at most one
+    private static <E extends Comparable<E>> Node<E> build(SortedInput<E> input, int size) {
+        if (size == 0)
+            return null;
+
+        int leftSize = (size - 1) / 2;
+        Node<E> left = build(input, leftSize);
+        Node<E> node = new Node<>(input.next());
+        node.left = left;
+        node.right = build(input, size - 1 - leftSize);
+
+        node.height = Math.max(node.left == null ? -1 : node.left.height, node.right == null ? -1 : node.right.height) + 1;
+        node.count = size;
+        return node;
+    }
+
+    //Preorder: flags, key, then the left and right subtrees
+    private static <E> void save(Node<E> node, DataOutput out, KeyCodec<E> codec) throws IOException {
+        out.writeByte((node.left != null ? SnapshotFile.HAS_LEFT : 0) | (node.right != null ? SnapshotFile.HAS_RIGHT : 0));
+        codec.write(node.element, out);
+        if (node.left != null)
+            save(node.left, out, codec);
+        if (node.right != null)
+            save(node.right, out, codec);
+    }
+
+    //Inverse of save, depth is checked so a corrupt file can't recurse without end
+    private static <E> Node<E> load(ByteBuffer in, KeyCodec<E> codec, int depth) throws IOException {
+        if (depth == MAX_DEPTH)
+            throw new IOException("snapshot is corrupt: tree deeper than " + MAX_DEPTH);
+
+        int flags = in.get();
+        Node<E> node = new Node<>(codec.read(in));
+        if ((flags & SnapshotFile.HAS_LEFT) != 0)
+            node.left = load(in, codec, depth + 1);
+        if ((flags & SnapshotFile.HAS_RIGHT) != 0)
+            node.right = load(in, codec, depth + 1);
+
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.count = count(node.left) + count(node.right) + 1;
+        return node;
+    }
+
+    //balance[0..2] counts nodes with balance factor 1, 0 and -1
+    private void stats(Node<E> node, int depth, TreeStats.Builder builder, int[] balance) {
+        if (node != null) {
+            builder.node(depth, 1);
+            balance[1 - getBalance(node)]++;
+            stats(node.left, depth + 1, builder, balance);
+            stats(node.right, depth + 1, builder, balance);
+        }
+    }
+
+    private void printAVL(Node<E> node,  StringBuilder sb) {
+        if(node != null) {
+            printAVL(node.left, sb);
+            sb.append("(").append(node.element).append(",").append(getBalance(node)).append(")");
+            printAVL(node.right, sb);
+        }
+    }
+
+    //MARK: - Interface Methods ------------------------------------------------------------------
+    @Override
+    public void insert(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.INSERT);
+        // BST Insert
+        if (root == null) {
+            root = new Node<>(item);
+            return;
+        }
+
+        int depth = 0;
+        Node<E> node = root;
+        while (true) {
+            path[depth++] = node;
+
+            int cmp = TreeMetrics.compare(item, node.element);
+            if (cmp == 0)
+                return;
+
+            Node<E> next = (cmp < 0) ? node.left : node.right;
+            if (next == null) {
+                if (cmp < 0)
+                    node.left = new Node<>(item);
+                else
+                    node.right = new Node<>(item);
+                updateCounts(depth, 1);
+                break;
+            }
+            node = next;
+        }
+
+        // after an insert one rotation restores the old height, so retrace stops there at the latest
+        retrace(depth);
+    }
+
+    @Override
+    public boolean find(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.FIND);
+        return findNode(root, item) != null;
+    }
+
+    @Override
+    public boolean findIsReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void delete(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.DELETE);
+        // BST Delete
+        int depth = 0;
+        Node<E> node = root;
+        while (node != null) {
+            int cmp = TreeMetrics.compare(item, node.element);
+            if (cmp == 0)
+                break;
+            path[depth++] = node;
+            node = (cmp < 0) ? node.left : node.right;
+        }
+
+        if (node == null)
+            return;
+
+        Node<E> parent = (depth > 0) ? path[depth - 1] : null;
+
+        if (node.left != null && node.right != null) {
+            // Two children: copy the inorder successor up and remove the successor instead
+            Node<E> target = node;
+            path[depth++] = node;
+            parent = node;
+            node = node.right;
+            while (node.left != null) {
+                path[depth++] = node;
+                parent = node;
+                node = node.left;
+            }
+            target.element = node.element;
+        }
+
+        // One or no children
+        replaceChild(parent, node, (node.left != null) ? node.left : node.right);
+        updateCounts(depth, -1);
+
+        retrace(depth);
+    }
+
+    @Override
+    public void insertAll(E[] sorted) {
+        TreeMetrics.operations(TreeMetrics.Operation.INSERT, sorted.length);
+        SortedInput.checkBatch(sorted);
+
+        // path[0..valid) is the path to the last key, upper[] its bounds
+        int valid = 0;
+        for (E item : sorted) {
+            if (root == null) {
+                root = new Node<>(item);
+                continue;
+            }
+
+            // climb to the deepest node whose subtree can still hold item, keys only grow so no lower bound check
+            int depth = valid;
+            while (depth > 0 && upper[depth - 1] != null && TreeMetrics.compare(item, upperBound(depth - 1)) >= 0)
+                depth--;
+
+            Node<E> node;
+            E bound;
+            if (depth == 0) {
+                node = root;
+                bound = null;
+            } else {
+                depth--;
+                node = path[depth];
+                bound = upperBound(depth);
+            }
+
+            boolean inserted = false;
+            while (true) {
+                path[depth] = node;
+                upper[depth++] = bound;
+
+                int cmp = TreeMetrics.compare(item, node.element);
+                if (cmp == 0)
+                    break;
+
+                if (cmp < 0)
+                    bound = node.element;
+                Node<E> next = (cmp < 0) ? node.left : node.right;
+                if (next == null) {
+                    if (cmp < 0)
+                        node.left = new Node<>(item);
+                    else
+                        node.right = new Node<>(item);
+                    inserted = true;
+                    break;
+                }
+                node = next;
+            }
+
+            if (inserted) {
+                updateCounts(depth, 1);
+                valid = retrace(depth) + 1;
+            } else {
+                valid = depth;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private E upperBound(int depth) {
+        return (E) upper[depth];
+    }
+
+    @Override
+    public BitSet findAll(E[] sorted) {
+        TreeMetrics.operations(TreeMetrics.Operation.FIND, sorted.length);
+        SortedInput.checkBatch(sorted);
+        BitSet found = new BitSet(sorted.length);
+        findAll(root, sorted, 0, sorted.length, found);
+        return found;
+    }
+
+    @Override
+    public int height() {
+        return height(root);
+    }
+
+    @Override
+    public int size() {
+        return count(root);
+    }
+
+    @Override
+    public TreeStats stats() {
+        TreeStats.Builder builder = new TreeStats.Builder();
+        int[] balance = new int[3];
+        stats(root, 0, builder, balance);
+        return builder.type("balance 1", balance[0])
+                .type("balance 0", balance[1])
+                .type("balance -1", balance[2])
+                .build();
+    }
+
+    @Override
+    public Iterator<E> range(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+        return new Cursor(new Bounds<>(from, fromInclusive, to, toInclusive), descending);
+    }
+
+    //MARK: - Cursor ------------------------------------------------------------------
+
+    //In-order cursor: the stack holds the nodes whose element and far subtree are still to come,
+    //bounded by the tree height so it never grows
+    private class Cursor implements Iterator<E> {
+        private final Bounds<E> bounds;
+        private final boolean descending;
+        @SuppressWarnings("unchecked")
+        private final Node<E>[] stack = (Node<E>[]) new Node[MAX_DEPTH];
+        private int top;
+        private Node<E> next;
+
+        Cursor(Bounds<E> bounds, boolean descending) {
+            this.bounds = bounds;
+            this.descending = descending;
+
+            // Push the path to the first element inside the start bound
+            Node<E> node = root;
+            while (node != null) {
+                if (descending ? bounds.belowHigh(node.element) : bounds.aboveLow(node.element)) {
+                    stack[top++] = node;
+                    node = descending ? node.right : node.left;
+                } else {
+                    node = descending ? node.left : node.right;
+                }
+            }
+            advance();
+        }
+
+        //Peek at the top of the stack and stop once it is past the end bound
+        private void advance() {
+            next = null;
+            if (top > 0) {
+                Node<E> candidate = stack[top - 1];
+                if (descending ? bounds.aboveLow(candidate.element) : bounds.belowHigh(candidate.element)) {
+                    next = candidate;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            E element = next.element;
+            top--;
+
+            // everything in the far subtree comes next, starting with its near spine
+            Node<E> node = descending ? next.left : next.right;
+            while (node != null) {
+                stack[top++] = node;
+                node = descending ? node.right : node.left;
+            }
+            advance();
+            return element;
+        }
+    }
+
+    //MARK: - Join and Split ------------------------------------------------------------------
+
+    //A tree cut at a key: the nodes below it, the node holding it (null if none) and the nodes above it
+    private static final class Split<E> {
+        Node<E> left;
+        final Node<E> match;
+        Node<E> right;
+
+        Split(Node<E> left, Node<E> match, Node<E> right) {
+            this.left = left;
+            this.match = match;
+            this.right = right;
+        }
+    }
+
+    private enum SetOperation { UNION, INTERSECTION, DIFFERENCE }
+
+    //Relink node over left and right, and update its height and subtree size
+    private static <E> Node<E> link(Node<E> left, Node<E> node, Node<E> right) {
+        node.left = left;
+        node.right = right;
+        node.height = Math.max(height(left), height(right)) + 1;
+        node.count = count(left) + count(right) + 1;
+        return node;
+    }
+
+    //Every element of left < middle < every element of right
+    private static <E> Node<E> join(Node<E> left, Node<E> middle, Node<E> right) {
+        if (height(left) > height(right) + 1)
+            return joinRight(left, middle, right);
+        if (height(right) > height(left) + 1)
+            return joinLeft(left, middle, right);
+        return link(left, middle, right);
+    }
+
+    //left is taller: go down its right spine to a subtree at most one higher than right and hang middle there,
+    //then rotate on the way back up wherever that made a node two higher on the right
+    private static <E> Node<E> joinRight(Node<E> left, Node<E> middle, Node<E> right) {
+        Node<E> outer = left.left;
+        Node<E> inner = left.right;
+        if (height(inner) <= height(right) + 1) {
+            Node<E> joined = link(inner, middle, right);
+            if (height(joined) <= height(outer) + 1)
+                return link(outer, left, joined);
+            return leftRotation(link(outer, left, rightRotate(joined)));
+        }
+
+        Node<E> joined = joinRight(inner, middle, right);
+        link(outer, left, joined);
+        return (height(joined) <= height(outer) + 1) ? left : leftRotation(left);
+    }
+
+    //Mirror image of joinRight
+    private static <E> Node<E> joinLeft(Node<E> left, Node<E> middle, Node<E> right) {
+        Node<E> outer = right.right;
+        Node<E> inner = right.left;
+        if (height(inner) <= height(left) + 1) {
+            Node<E> joined = link(left, middle, inner);
+            if (height(joined) <= height(outer) + 1)
+                return link(joined, right, outer);
+            return rightRotate(link(leftRotation(joined), right, outer));
+        }
+
+        Node<E> joined = joinLeft(left, middle, inner);
+        link(joined, right, outer);
+        return (height(joined) <= height(outer) + 1) ? right : rightRotate(right);
+    }
+
+    //Join without a middle element: the largest element of left is taken out and used as one
+    private static <E> Node<E> join2(Node<E> left, Node<E> right) {
+        if (left == null)
+            return right;
+        Split<E> last = splitLast(left);
+        return join(last.left, last.match, right);
+    }
+
+    private static <E> Split<E> splitLast(Node<E> node) {
+        if (node.right == null)
+            return new Split<>(node.left, node, null);
+        Split<E> split = splitLast(node.right);
+        split.left = join(node.left, node, split.left);
+        return split;
+    }
+
+    //The match keeps its old children, whoever uses it relinks it
+    private static <E extends Comparable<E>> Split<E> split(Node<E> node, E key) {
+        if (node == null)
+            return new Split<>(null, null, null);
+
+        int cmp = TreeMetrics.compare(key, node.element);
+        if (cmp == 0)
+            return new Split<>(node.left, node, node.right);
+        if (cmp < 0) {
+            Split<E> split = split(node.left, key);
+            split.right = join(split.right, node, node.right);
+            return split;
+        }
+        Split<E> split = split(node.right, key);
+        split.left = join(node.left, node, split.left);
+        return split;
+    }
+
+    //Split a at b's root, combine the two halves of a with the two subtrees of b, and join the results
+    private static final class SetTask<E extends Comparable<E>> extends RecursiveTask<Node<E>> {
+        private final SetOperation operation;
+        private final Node<E> a;
+        private final Node<E> b;
+
+        SetTask(SetOperation operation, Node<E> a, Node<E> b) {
+            this.operation = operation;
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        protected Node<E> compute() {
+            if (a == null)
+                return (operation == SetOperation.UNION) ? b : null;
+            if (b == null)
+                return (operation == SetOperation.INTERSECTION) ? null : a;
+
+            boolean parallel = count(a) + count(b) > PARALLEL_THRESHOLD;
+            Node<E> bLeft = b.left;
+            Node<E> bRight = b.right;
+            Split<E> split = split(a, b.element);
+
+            // the two halves share no nodes, so one can run on another worker
+            SetTask<E> leftTask = new SetTask<>(operation, split.left, bLeft);
+            SetTask<E> rightTask = new SetTask<>(operation, split.right, bRight);
+            Node<E> left;
+            Node<E> right;
+            if (parallel) {
+                leftTask.fork();
+                right = rightTask.compute();
+                left = leftTask.join();
+            } else {
+                left = leftTask.compute();
+                right = rightTask.compute();
+            }
+
+            switch (operation) {
+                case UNION:
+                    return AVL.join(left, b, right);
+                case INTERSECTION:
+                    return (split.match != null) ? AVL.join(left, b, right) : join2(left, right);
+                default:
+                    return join2(left, right);
+            }
+        }
+    }
+
+    private static <E extends Comparable<E>> AVL<E> setOperation(SetOperation operation, AVL<E> a, AVL<E> b, ForkJoinPool pool) {
+        if (a == b)
+            throw new IllegalArgumentException("both arguments are the same tree");
+
+        AVL<E> result = new AVL<>();
+        result.root = pool.invoke(new SetTask<>(operation, a.root, b.root));
+        a.root = null;
+        b.root = null;
+        return result;
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    public int rank(E item) {
+        return rank(item, false);
+    }
+
+    public E select(int index) {
+        if (index < 0 || index >= count(root))
+            throw new IndexOutOfBoundsException("index " + index + " out of range for size " + count(root));
+
+        Node<E> node = root;
+        while (true) {
+            int leftCount = count(node.left);
+            if (index < leftCount) {
+                node = node.left;
+            } else if (index == leftCount) {
+                return node.element;
+            } else {
+                index -= leftCount + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    //Same bounds as range(from, to): from inclusive, to exclusive
+    public int countRange(E from, E to) {
+        return countRange(from, true, to, false);
+    }
+
+    public int countRange(E from, boolean fromInclusive, E to, boolean toInclusive) {
+        int below = (from == null) ? 0 : rank(from, !fromInclusive);
+        int upTo = (to == null) ? count(root) : rank(to, toInclusive);
+        return Math.max(0, upTo - below);
+    }
+
+    //sorted must be strictly ascending, IllegalArgumentException otherwise
+    public static <E extends Comparable<E>> AVL<E> buildFromSorted(E[] sorted) {
+        return buildFromSorted(Arrays.asList(sorted).iterator(), sorted.length);
+    }
+
+    //Takes the first size elements of sorted
+    public static <E extends Comparable<E>> AVL<E> buildFromSorted(Iterator<? extends E> sorted, int size) {
+        if (size < 0)
+            throw new IllegalArgumentException("negative size " + size);
+
+        AVL<E> avl = new AVL<>();
+        avl.root = build(new SortedInput<>(sorted), size);
+        return avl;
+    }
+
+    public static AVL<Integer> buildFromSorted(IntStream sorted) {
+        int[] keys = sorted.toArray();
+        return buildFromSorted(Arrays.stream(keys).iterator(), keys.length);
+    }
+
+    //Every element of left must be smaller than middle, and every element of right larger
+    public static <E extends Comparable<E>> AVL<E> join(AVL<E> left, E middle, AVL<E> right) {
+        if (left == right)
+            throw new IllegalArgumentException("both arguments are the same tree");
+        Node<E> last = left.root;
+        while (last != null && last.right != null)
+            last = last.right;
+        Node<E> first = right.root;
+        while (first != null && first.left != null)
+            first = first.left;
+        if ((last != null && last.element.compareTo(middle) >= 0) || (first != null && first.element.compareTo(middle) <= 0))
+            throw new IllegalArgumentException("left < " + middle + " < right does not hold");
+
+        AVL<E> result = new AVL<>();
+        result.root = join(left.root, new Node<>(middle), right.root);
+        left.root = null;
+        right.root = null;
+        return result;
+    }
+
+    //Moves every element >= key out of this tree and returns them as a new tree
+    public AVL<E> split(E key) {
+        Split<E> split = split(root, key);
+        root = split.left;
+        AVL<E> upper = new AVL<>();
+        upper.root = (split.match == null) ? split.right : join(null, split.match, split.right);
+        return upper;
+    }
+
+    public static <E extends Comparable<E>> AVL<E> union(AVL<E> a, AVL<E> b) {
+        return union(a, b, ForkJoinPool.commonPool());
+    }
+
+    public static <E extends Comparable<E>> AVL<E> union(AVL<E> a, AVL<E> b, ForkJoinPool pool) {
+        return setOperation(SetOperation.UNION, a, b, pool);
+    }
+
+    public static <E extends Comparable<E>> AVL<E> intersection(AVL<E> a, AVL<E> b) {
+        return intersection(a, b, ForkJoinPool.commonPool());
+    }
+
+    public static <E extends Comparable<E>> AVL<E> intersection(AVL<E> a, AVL<E> b, ForkJoinPool pool) {
+        return setOperation(SetOperation.INTERSECTION, a, b, pool);
+    }
+
+    //The elements of a that are not in b
+    public static <E extends Comparable<E>> AVL<E> difference(AVL<E> a, AVL<E> b) {
+        return difference(a, b, ForkJoinPool.commonPool());
+    }
+
+    public static <E extends Comparable<E>> AVL<E> difference(AVL<E> a, AVL<E> b, ForkJoinPool pool) {
+        return setOperation(SetOperation.DIFFERENCE, a, b, pool);
+    }
+
+    public void save(Path file, KeyCodec<E> codec) throws IOException {
+        try (DataOutputStream out = SnapshotFile.create(file, SnapshotFile.AVL, count(root))) {
+            if (root != null)
+                save(root, out, codec);
+        }
+    }
+
+    public static <E extends Comparable<E>> AVL<E> load(Path file, KeyCodec<E> codec) throws IOException {
+        ByteBuffer in = SnapshotFile.map(file, SnapshotFile.AVL);
+        AVL<E> avl = new AVL<>();
+        try {
+            int size = in.getInt();
+            avl.root = (size == 0) ? null : load(in, codec, 0);
+            if (count(avl.root) != size)
+                throw new IOException("snapshot is corrupt: " + count(avl.root) + " nodes, header says " + size);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("snapshot is truncated: " + file, e);
+        }
+        return avl;
+    }
+
+    public void heightAVL(E item) {
+        Node<E> node = findNode(root, item);
+        if (node != null) {
+            System.out.println("node height = " + node.height);
+        } else {
+            System.out.println("Item not found.");
+        }
+    }
+
+    public void printAVL() {
+        StringBuilder sb = new StringBuilder();
+        printAVL(root, sb);
+        System.out.print(sb.toString());
+    }
+}
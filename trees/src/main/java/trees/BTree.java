@@ -0,0 +1,533 @@
+/*
+Implementation of a B-Tree of configurable order using the BalanceTree interface, Tree234 is the order 4 case
+order is the most children a node can have (so order - 1 keys), it has to be even and at least 4.
+Like Tree234, insert splits every full node on the way down and delete tops up every node it steps into,
+so both are a single pass from the root. Nodes keep their keys in one array, searched with binary search,
+so a larger order means fewer levels and fewer cache misses on the way down.
+stats: Counts leaf and internal nodes, per level depths are counted by key like Tree234
+ */
+
+package trees;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class BTree<E extends Comparable<E>> implements BalanceTree<E> {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    //a B-tree of n keys is at most log2(n + 1) levels deep
+    private static final int MAX_DEPTH = 64;
+
+    //most children of a node, and the fewest keys a node we step into during delete must have
+    private final int order;
+    private final int minKeys;
+
+    private Node<E> root;
+    private int size = 0;
+
+    //Node class for BTree
+    //keys and children are fixed size arrays, only the first count keys (and count + 1 children) are used
+    //a node never changes between leaf and internal, so leaves don't allocate a children array
+    private static class Node<E> {
+        final Object[] keys;
+        final Node<E>[] children;
+        int count;
+
+        @SuppressWarnings("unchecked")
+        Node(int order, boolean leaf) {
+            keys = new Object[order - 1];
+            children = leaf ? null : (Node<E>[]) new Node[order];
+            count = 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        E key(int i) {
+            return (E) keys[i];
+        }
+
+        boolean isLeaf() {
+            return children == null;
+        }
+
+        boolean isFull() {
+            return count == keys.length;
+        }
+
+        // Shifts keys[i..] right by one and puts key at i
+        void insertKey(int i, E key) {
+            System.arraycopy(keys, i, keys, i + 1, count - i);
+            keys[i] = key;
+            count++;
+        }
+
+        // Removes keys[i] and shifts the rest left by one
+        void removeKey(int i) {
+            count--;
+            System.arraycopy(keys, i + 1, keys, i, count - i);
+            keys[count] = null;
+        }
+
+        // Shifts children[i..] right by one and puts child at i, call before insertKey
+        void insertChild(int i, Node<E> child) {
+            System.arraycopy(children, i, children, i + 1, count + 1 - i);
+            children[i] = child;
+        }
+
+        // Removes children[i] and shifts the rest left by one, call after removeKey
+        void removeChild(int i) {
+            System.arraycopy(children, i + 1, children, i, count + 1 - i);
+            children[count + 1] = null;
+        }
+    }
+
+    // Constructor: order 64, which fills about four cache lines of keys per node
+    public BTree() {
+        this(64);
+    }
+
+    public BTree(int order) {
+        if (order < 4 || order % 2 != 0)
+            throw new IllegalArgumentException("order must be even and at least 4: " + order);
+        this.order = order;
+        this.minKeys = order / 2;
+        root = new Node<>(order, true);
+    }
+
+    //MARK: - Helper Methods ------------------------------------------------------------------
+
+    // Index of item in the node's keys, or -(insertion point) - 1 if it is not there
+    private static <E extends Comparable<E>> int search(Node<E> node, E item) {
+        int low = 0;
+        int high = node.count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = TreeMetrics.compare(item, node.key(mid));
+            if (cmp > 0)
+                low = mid + 1;
+            else if (cmp < 0)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
+
+    private void insert(Node<E> node, E item) {
+        while (true) {
+            int i = search(node, item);
+            if (i >= 0) {
+                return;
+            }
+            i = -(i + 1);
+
+            if (node.isLeaf()) {
+                node.insertKey(i, item);
+                size++;
+                return;
+            }
+
+            Node<E> child = node.children[i];
+            if (child.isFull()) {
+                splitChild(node, i);
+
+                int cmp = TreeMetrics.compare(item, node.key(i));
+                if (cmp == 0) {
+                    // the item was the middle key that moved up
+                    return;
+                }
+                child = node.children[cmp > 0 ? i + 1 : i];
+            }
+            node = child;
+        }
+    }
+
+    // Splits the full child in two around its middle key, which moves up into parent
+    private void splitChild(Node<E> parent, int childIndex) {
+        TreeMetrics.count(TreeMetrics.Event.SPLIT);
+        Node<E> child = parent.children[childIndex];
+        Node<E> newChild = new Node<>(order, child.isLeaf());
+
+        // Keys right of the middle move to the new node
+        int middle = child.count / 2;
+        int moved = child.count - middle - 1;
+        System.arraycopy(child.keys, middle + 1, newChild.keys, 0, moved);
+        newChild.count = moved;
+
+        if (!child.isLeaf()) {
+            System.arraycopy(child.children, middle + 1, newChild.children, 0, moved + 1);
+            Arrays.fill(child.children, middle + 1, child.count + 1, null);
+        }
+
+        E middleKey = child.key(middle);
+        Arrays.fill(child.keys, middle, child.count, null);
+        child.count = middle;
+
+        parent.insertChild(childIndex + 1, newChild);
+        parent.insertKey(childIndex, middleKey);
+    }
+
+    //Never more than MAX_DEPTH levels, so an optimistic reader racing a split or merge
+    //(see ConcurrentBalanceTree) cannot loop without end
+    private boolean find(Node<E> node, E item) {
+        for (int depth = 0; depth < MAX_DEPTH; depth++) {
+            int i = search(node, item);
+            if (i >= 0) {
+                return true;
+            }
+            if (node.isLeaf()) {
+                return false;
+            }
+            node = node.children[-(i + 1)];
+        }
+        return false;
+    }
+
+    // Top-down delete: every child we step into is made to hold at least minKeys keys first,
+    // so removing a key from a leaf never leaves it too small and nothing has to be fixed on the way back up
+    private void delete(Node<E> node, E item) {
+        while (true) {
+            int i = search(node, item);
+
+            // Case 1: Item found in current node
+            if (i >= 0) {
+                if (node.isLeaf()) {
+                    node.removeKey(i);
+                    size--;
+                    return;
+                }
+
+                Node<E> leftChild = node.children[i];
+                Node<E> rightChild = node.children[i + 1];
+
+                if (leftChild.count >= minKeys) {
+                    // replace with the predecessor and delete it from the left subtree
+                    E predecessor = maxKey(leftChild);
+                    node.keys[i] = predecessor;
+                    item = predecessor;
+                    node = leftChild;
+                } else if (rightChild.count >= minKeys) {
+                    // replace with the successor and delete it from the right subtree
+                    E successor = minKeyOf(rightChild);
+                    node.keys[i] = successor;
+                    item = successor;
+                    node = rightChild;
+                } else {
+                    // both children are minimal, pull the item down into a merged full node
+                    mergeNodes(node, i);
+                    node = leftChild;
+                }
+            }
+            // Case 2: Item not found in current node
+            else {
+                if (node.isLeaf()) {
+                    return;
+                }
+                node = topUp(node, -(i + 1));
+            }
+        }
+    }
+
+    // Makes sure parent.children[nodeIndex] has at least minKeys keys before we descend into it
+    // by borrowing from a sibling or merging with one. Returns the node to descend into.
+    private Node<E> topUp(Node<E> parent, int nodeIndex) {
+        Node<E> node = parent.children[nodeIndex];
+
+        // Fine already
+        if (node.count >= minKeys) {
+            return node;
+        }
+
+        // Try to borrow from left sibling
+        if (nodeIndex > 0) {
+            Node<E> leftSibling = parent.children[nodeIndex - 1];
+
+            if (leftSibling.count >= minKeys) {
+                TreeMetrics.count(TreeMetrics.Event.BORROW);
+                int last = leftSibling.count - 1;
+                if (!leftSibling.isLeaf()) {
+                    node.insertChild(0, leftSibling.children[last + 1]);
+                    leftSibling.children[last + 1] = null;
+                }
+                node.insertKey(0, parent.key(nodeIndex - 1));
+
+                parent.keys[nodeIndex - 1] = leftSibling.keys[last];
+                leftSibling.removeKey(last);
+                return node;
+            }
+        }
+
+        // Try to borrow from right sibling
+        if (nodeIndex < parent.count) {
+            Node<E> rightSibling = parent.children[nodeIndex + 1];
+
+            if (rightSibling.count >= minKeys) {
+                TreeMetrics.count(TreeMetrics.Event.BORROW);
+                if (!rightSibling.isLeaf()) {
+                    node.children[node.count + 1] = rightSibling.children[0];
+                }
+                node.insertKey(node.count, parent.key(nodeIndex));
+
+                parent.keys[nodeIndex] = rightSibling.keys[0];
+                rightSibling.removeKey(0);
+                if (!rightSibling.isLeaf()) {
+                    rightSibling.removeChild(0);
+                }
+                return node;
+            }
+        }
+
+        if (nodeIndex > 0) {
+            // Merge with left sibling, node's keys end up in the left sibling
+            mergeNodes(parent, nodeIndex - 1);
+            return parent.children[nodeIndex - 1];
+        } else {
+            // Merge with right sibling
+            mergeNodes(parent, nodeIndex);
+            return node;
+        }
+    }
+
+    // Largest key in the subtree
+    private E maxKey(Node<E> node) {
+        while (!node.isLeaf()) {
+            node = node.children[node.count];
+        }
+        return node.key(node.count - 1);
+    }
+
+    // Smallest key in the subtree
+    private E minKeyOf(Node<E> node) {
+        while (!node.isLeaf()) {
+            node = node.children[0];
+        }
+        return node.key(0);
+    }
+
+    // Left child, the parent key between them and the right child become one node
+    private void mergeNodes(Node<E> parent, int keyIndex) {
+        TreeMetrics.count(TreeMetrics.Event.MERGE);
+        Node<E> leftChild = parent.children[keyIndex];
+        Node<E> rightChild = parent.children[keyIndex + 1];
+
+        int n = leftChild.count;
+        leftChild.keys[n] = parent.keys[keyIndex];
+
+        // Move all keys from right child to left child
+        System.arraycopy(rightChild.keys, 0, leftChild.keys, n + 1, rightChild.count);
+
+        // Move all children from right child to left child
+        if (!rightChild.isLeaf()) {
+            System.arraycopy(rightChild.children, 0, leftChild.children, n + 1, rightChild.count + 1);
+        }
+        leftChild.count = n + 1 + rightChild.count;
+
+        parent.removeKey(keyIndex);
+        parent.removeChild(keyIndex + 1);
+    }
+
+    // nodes[0] counts leaves, nodes[1] internal nodes
+    private void stats(Node<E> node, int depth, TreeStats.Builder builder, int[] nodes) {
+        builder.node(depth, node.count);
+
+        if (node.isLeaf()) {
+            nodes[0]++;
+        } else {
+            nodes[1]++;
+            for (int i = 0; i <= node.count; i++) {
+                stats(node.children[i], depth + 1, builder, nodes);
+            }
+        }
+    }
+
+    private int height(Node<E> node) {
+        int height = 0;
+        while (!node.isLeaf()) {
+            node = node.children[0];
+            height++;
+        }
+        return height;
+    }
+
+    //MARK: - Interface Methods ------------------------------------------------------------------
+
+    @Override
+    public void insert(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.INSERT);
+        if (root.isFull()) {
+            // Split the full root under a new empty root, the middle key moves up
+            Node<E> newRoot = new Node<>(order, false);
+            newRoot.children[0] = root;
+            root = newRoot;
+            splitChild(newRoot, 0);
+        }
+
+        insert(root, item);
+    }
+
+    @Override
+    public boolean find(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.FIND);
+        return find(root, item);
+    }
+
+    @Override
+    public boolean findIsReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void delete(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.DELETE);
+        delete(root, item);
+
+        if (root.count == 0 && !root.isLeaf()) {
+            root = root.children[0];
+        }
+    }
+
+    @Override
+    public int height() {
+        return height(root);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public TreeStats stats() {
+        TreeStats.Builder builder = new TreeStats.Builder();
+        int[] nodes = new int[2];
+        stats(root, 0, builder, nodes);
+        return builder.type("leaf", nodes[0])
+                .type("internal", nodes[1])
+                .build();
+    }
+
+    @Override
+    public Iterator<E> range(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+        return new Cursor(new Bounds<>(from, fromInclusive, to, toInclusive), descending);
+    }
+
+    //MARK: - Cursor ------------------------------------------------------------------
+
+    //In-order cursor over a path stack of (node, key index) frames, one frame per level
+    //ascending: index is the next key to return in that node, descending: index - 1 is
+    private class Cursor implements Iterator<E> {
+        private final Bounds<E> bounds;
+        private final boolean descending;
+        private final Node<E>[] nodes;
+        private final int[] index;
+        private int top;
+        private E next;
+
+        @SuppressWarnings("unchecked")
+        Cursor(Bounds<E> bounds, boolean descending) {
+            this.bounds = bounds;
+            this.descending = descending;
+
+            int levels = height(root) + 1;
+            nodes = (Node<E>[]) new Node[levels];
+            index = new int[levels];
+
+            // Push the path to the first key inside the start bound, binary searching each node for it
+            Node<E> node = root;
+            while (true) {
+                int i = descending ? lastBelowHigh(node) + 1 : firstAboveLow(node);
+                push(node, i);
+
+                if (node.isLeaf()) {
+                    break;
+                }
+                node = node.children[i];
+            }
+            advance();
+        }
+
+        // Index of the first key not below the lower bound, count if there is none
+        private int firstAboveLow(Node<E> node) {
+            int low = 0;
+            int high = node.count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (bounds.aboveLow(node.key(mid)))
+                    high = mid;
+                else
+                    low = mid + 1;
+            }
+            return low;
+        }
+
+        // Index of the last key not above the upper bound, -1 if there is none
+        private int lastBelowHigh(Node<E> node) {
+            int low = 0;
+            int high = node.count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (bounds.belowHigh(node.key(mid)))
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low - 1;
+        }
+
+        private void push(Node<E> node, int i) {
+            nodes[top] = node;
+            index[top++] = i;
+        }
+
+        //Drop finished frames, then peek at the next key and stop once it is past the end bound
+        private void advance() {
+            next = null;
+            while (top > 0 && (descending ? index[top - 1] == 0 : index[top - 1] == nodes[top - 1].count)) {
+                top--;
+            }
+            if (top > 0) {
+                Node<E> node = nodes[top - 1];
+                E candidate = node.key(descending ? index[top - 1] - 1 : index[top - 1]);
+                if (descending ? bounds.aboveLow(candidate) : bounds.belowHigh(candidate)) {
+                    next = candidate;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            E element = next;
+
+            // step past the key, then walk down the near edge of the subtree that follows it
+            Node<E> node = nodes[top - 1];
+            int i = descending ? --index[top - 1] : ++index[top - 1];
+            if (!node.isLeaf()) {
+                Node<E> child = node.children[i];
+                while (true) {
+                    push(child, descending ? child.count : 0);
+                    if (child.isLeaf()) {
+                        break;
+                    }
+                    child = child.children[descending ? child.count : 0];
+                }
+            }
+            advance();
+            return element;
+        }
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    public int order() {
+        return order;
+    }
+}
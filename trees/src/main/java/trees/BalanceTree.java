@@ -0,0 +1,67 @@
+package trees;
+
+/*
+Interface Containing:
+    1. Insert: Adds an Item to the tree
+    2. Find: Returns True if the item is found
+    3. Delete: Deletes an Item
+    4. Height: Returns the Height of the tree
+    5. Size: Returns the number of items in the tree
+    6. Stats: Returns the shape statistics of the tree (see TreeStats), computed in one pass over the nodes
+    7. Range: Returns a lazy in-order cursor over the items between two bounds, ascending or descending
+       Finding the first item is O(log n) and every step after that is O(1) amortized, without allocating.
+       A null bound means unbounded on that side. The tree must not be modified while a cursor is in use.
+    8. InsertAll / FindAll: Batch versions of insert and find for a strictly ascending batch.
+       The defaults make one call per item, AVL and RedBlack share the descent across the batch
+       and throw IllegalArgumentException if the batch is not strictly ascending.
+    9. FindIsReadOnly: True if find never changes the tree, so several threads can run it side by side.
+       The default says no (Splay's find rotates), the trees whose find only reads say yes
+       and wrappers ask the tree they wrap.
+ */
+
+import java.util.BitSet;
+import java.util.Iterator;
+
+public interface BalanceTree<E extends Comparable<E>> {
+    public void insert(E item);
+    public boolean find(E item);
+    public void delete(E item);
+    public int height();
+    public int size();
+    public TreeStats stats();
+    public Iterator<E> range(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending);
+
+    // Items from (inclusive) up to to (exclusive) in ascending order
+    public default Iterator<E> range(E from, E to) {
+        return range(from, true, to, false, false);
+    }
+
+    public default Iterator<E> ascending() {
+        return range(null, true, null, true, false);
+    }
+
+    public default Iterator<E> descending() {
+        return range(null, true, null, true, true);
+    }
+
+    public default void insertAll(E[] sorted) {
+        for (E item : sorted) {
+            insert(item);
+        }
+    }
+
+    // Bit i is set if sorted[i] is in the tree
+    public default BitSet findAll(E[] sorted) {
+        BitSet found = new BitSet(sorted.length);
+        for (int i = 0; i < sorted.length; i++) {
+            if (find(sorted[i])) {
+                found.set(i);
+            }
+        }
+        return found;
+    }
+
+    public default boolean findIsReadOnly() {
+        return false;
+    }
+}
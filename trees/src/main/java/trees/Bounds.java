@@ -0,0 +1,39 @@
+/*
+Lower and upper bound of a range scan, a null bound means unbounded on that side
+Used by the tree cursors returned from BalanceTree.range
+ */
+
+package trees;
+
+final class Bounds<E extends Comparable<E>> {
+
+    private final E low;
+    private final boolean lowInclusive;
+    private final E high;
+    private final boolean highInclusive;
+
+    Bounds(E low, boolean lowInclusive, E high, boolean highInclusive) {
+        this.low = low;
+        this.lowInclusive = lowInclusive;
+        this.high = high;
+        this.highInclusive = highInclusive;
+    }
+
+    //True if item is not below the lower bound
+    boolean aboveLow(E item) {
+        if (low == null) {
+            return true;
+        }
+        int cmp = item.compareTo(low);
+        return cmp > 0 || (cmp == 0 && lowInclusive);
+    }
+
+    //True if item is not above the upper bound
+    boolean belowHigh(E item) {
+        if (high == null) {
+            return true;
+        }
+        int cmp = item.compareTo(high);
+        return cmp < 0 || (cmp == 0 && highInclusive);
+    }
+}
@@ -0,0 +1,763 @@
+/*
+Concurrent AVL Tree using the BalanceTree interface, after Bronson, Casper, Chafi and Olukotun,
+"A Practical Concurrent Binary Search Tree" (PPoPP 2010)
+Plus two additional Methods add and remove, insert / delete that report whether the tree changed
+find: Never locks, it validates each step with the version number of the node it came from instead
+insert / delete: Lock only the node(s) they change, then walk up fixing heights with the same
+    rotations as AVL, locking parent, node and the child that moves up, always top down.
+A node's version changes whenever a rotation shrinks the range of keys below it, so a reader that
+sees a changed version steps back up one level and retries from there rather than from the root.
+Deleting a node with two children only marks it as not present, it stays as a routing node and is
+unlinked once it is down to one child. Balance is relaxed while writers are running and exact once they stop.
+size: Exact when no writers are running. height and stats walk the tree and are only exact then too.
+range: Each step is one O(log n) search for the next element, weakly consistent like ConcurrentSkipListSet:
+    elements present for the whole scan are returned once, in order, others may or may not be.
+ */
+
+package trees;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConcurrentAVL<E extends Comparable<E>> implements BalanceTree<E> {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    //version bits: the node is no longer in the tree / a rotation is moving it down right now,
+    //every finished rotation adds SHRINK_COUNT
+    private static final long UNLINKED = 1;
+    private static final long SHRINKING = 2;
+    private static final long SHRINK_COUNT = 4;
+
+    //how often a reader re-reads a shrinking node's version before blocking on its lock
+    private static final int SPIN_COUNT = 100;
+
+    //returned by the attempt methods when the node they started from changed under them
+    private static final Object RETRY = new Object();
+
+    //results of nodeCondition, anything else is the height the node should have
+    private static final int NOTHING_REQUIRED = -2;
+    private static final int UNLINK_REQUIRED = -3;
+    private static final int REBALANCE_REQUIRED = -4;
+
+    //sentinel above the root, the root is its right child. It is never rotated, so its version stays 0
+    private final Node<E> rootHolder = new Node<>(null, false, null);
+    private final LongAdder size = new LongAdder();
+
+    //Node Class for the concurrent AVL
+    private static final class Node<E> {
+        final E element;
+        volatile boolean present;
+        volatile int height;
+        volatile long version;
+        volatile Node<E> parent;
+        volatile Node<E> left;
+        volatile Node<E> right;
+
+        Node(E element, boolean present, Node<E> parent) {
+            this.element = element;
+            this.present = present;
+            this.parent = parent;
+        }
+
+        Node<E> child(int dir) {
+            return (dir < 0) ? left : right;
+        }
+
+        void setChild(int dir, Node<E> child) {
+            if (dir < 0)
+                left = child;
+            else
+                right = child;
+        }
+    }
+
+    //MARK: - Helper Methods ------------------------------------------------------------------
+
+    private static int height(Node<?> node) {
+        return (node == null) ? -1 : node.height;
+    }
+
+    private static boolean isUnlinked(long version) {
+        return (version & UNLINKED) != 0;
+    }
+
+    //Shrinks hold the node's lock, so once spinning has not helped, taking the lock waits for the end of it
+    private static void waitUntilShrinkCompleted(Node<?> node, long version) {
+        for (int i = 0; i < SPIN_COUNT; i++) {
+            if (node.version != version)
+                return;
+        }
+        synchronized (node) {
+            // nothing to do, the rotation is over once we get here
+        }
+    }
+
+    // Searches below node.child(dir). nodeV is the version node had when we stepped onto it,
+    // if it changed the subtree we are in may no longer hold item and the caller has to retry
+    private Object attemptFind(E item, Node<E> node, int dir, long nodeV) {
+        while (true) {
+            Node<E> child = node.child(dir);
+            if (node.version != nodeV)
+                return RETRY;
+            if (child == null)
+                return Boolean.FALSE;
+
+            int nextDir = item.compareTo(child.element);
+            if (nextDir == 0)
+                return child.present;
+
+            long childV = child.version;
+            if ((childV & SHRINKING) != 0) {
+                waitUntilShrinkCompleted(child, childV);
+            } else if (!isUnlinked(childV) && child == node.child(dir)) {
+                if (node.version != nodeV)
+                    return RETRY;
+                Object found = attemptFind(item, child, nextDir, childV);
+                if (found != RETRY)
+                    return found;
+            }
+        }
+    }
+
+    private Object attemptAdd(E item, Node<E> node, int dir, long nodeV) {
+        Object result;
+        do {
+            result = RETRY;
+            Node<E> child = node.child(dir);
+            if (node.version != nodeV)
+                return RETRY;
+
+            if (child == null) {
+                result = attemptInsert(item, node, dir, nodeV);
+            } else {
+                int nextDir = item.compareTo(child.element);
+                if (nextDir == 0) {
+                    result = attemptMarkPresent(child);
+                } else {
+                    long childV = child.version;
+                    if ((childV & SHRINKING) != 0) {
+                        waitUntilShrinkCompleted(child, childV);
+                    } else if (!isUnlinked(childV) && child == node.child(dir)) {
+                        if (node.version != nodeV)
+                            return RETRY;
+                        result = attemptAdd(item, child, nextDir, childV);
+                    }
+                }
+            }
+        } while (result == RETRY);
+        return result;
+    }
+
+    private Object attemptInsert(E item, Node<E> node, int dir, long nodeV) {
+        synchronized (node) {
+            if (node.version != nodeV || node.child(dir) != null)
+                return RETRY;
+            node.setChild(dir, new Node<>(item, true, node));
+        }
+        fixHeightAndRebalance(node);
+        return Boolean.TRUE;
+    }
+
+    //item is already in the tree as a node, possibly a routing node left behind by a delete
+    private Object attemptMarkPresent(Node<E> node) {
+        synchronized (node) {
+            if (isUnlinked(node.version))
+                return RETRY;
+            boolean wasPresent = node.present;
+            node.present = true;
+            return !wasPresent;
+        }
+    }
+
+    private Object attemptRemove(E item, Node<E> node, int dir, long nodeV) {
+        Object result;
+        do {
+            result = RETRY;
+            Node<E> child = node.child(dir);
+            if (node.version != nodeV)
+                return RETRY;
+
+            if (child == null) {
+                result = Boolean.FALSE;
+            } else {
+                int nextDir = item.compareTo(child.element);
+                if (nextDir == 0) {
+                    result = attemptRemoveNode(node, child);
+                } else {
+                    long childV = child.version;
+                    if ((childV & SHRINKING) != 0) {
+                        waitUntilShrinkCompleted(child, childV);
+                    } else if (!isUnlinked(childV) && child == node.child(dir)) {
+                        if (node.version != nodeV)
+                            return RETRY;
+                        result = attemptRemove(item, child, nextDir, childV);
+                    }
+                }
+            }
+        } while (result == RETRY);
+        return result;
+    }
+
+    private static boolean canUnlink(Node<?> node) {
+        return node.left == null || node.right == null;
+    }
+
+    private Object attemptRemoveNode(Node<E> parent, Node<E> node) {
+        if (!node.present)
+            return Boolean.FALSE;
+
+        if (!canUnlink(node)) {
+            // Two children: leave it where it is as a routing node
+            synchronized (node) {
+                if (isUnlinked(node.version) || canUnlink(node))
+                    return RETRY;
+                if (!node.present)
+                    return Boolean.FALSE;
+                node.present = false;
+            }
+            return Boolean.TRUE;
+        }
+
+        // One or no children: splice it out
+        synchronized (parent) {
+            if (isUnlinked(parent.version) || node.parent != parent)
+                return RETRY;
+            synchronized (node) {
+                if (!node.present)
+                    return Boolean.FALSE;
+                if (!canUnlink(node))
+                    return RETRY;
+                Node<E> splice = (node.left != null) ? node.left : node.right;
+                if (parent.left == node)
+                    parent.left = splice;
+                else
+                    parent.right = splice;
+                if (splice != null)
+                    splice.parent = parent;
+                node.version = UNLINKED;
+                node.present = false;
+            }
+        }
+        fixHeightAndRebalance(parent);
+        return Boolean.TRUE;
+    }
+
+    //What node needs without any locks: nothing, to be unlinked, a rotation or just a new height
+    private int nodeCondition(Node<E> node) {
+        Node<E> left = node.left;
+        Node<E> right = node.right;
+
+        if ((left == null || right == null) && !node.present)
+            return UNLINK_REQUIRED;
+
+        int hL = height(left);
+        int hR = height(right);
+        int balance = hL - hR;
+        if (balance < -1 || balance > 1)
+            return REBALANCE_REQUIRED;
+
+        int newHeight = 1 + Math.max(hL, hR);
+        return (node.height != newHeight) ? newHeight : NOTHING_REQUIRED;
+    }
+
+    //Walk up from node until nothing changes, every step locks at most parent and node
+    private void fixHeightAndRebalance(Node<E> node) {
+        //parents of rebalanced subtrees still to look at: a rotation that leaves a moved node needing more work
+        //sends the walk down to that node, and the walk may stop before it is back up at the parent
+        ArrayDeque<Node<E>> pending = null;
+
+        while (true) {
+            int condition = (node == null || node.parent == null || isUnlinked(node.version))
+                    ? NOTHING_REQUIRED
+                    : nodeCondition(node);
+
+            if (condition == NOTHING_REQUIRED) {
+                if (pending == null || pending.isEmpty())
+                    return;
+                node = pending.pop();
+            } else if (condition != UNLINK_REQUIRED && condition != REBALANCE_REQUIRED) {
+                synchronized (node) {
+                    node = fixHeight(node);
+                }
+            } else {
+                Node<E> parent = node.parent;
+                synchronized (parent) {
+                    if (!isUnlinked(parent.version) && node.parent == parent) {
+                        synchronized (node) {
+                            node = rebalance(parent, node);
+                        }
+                        if (pending == null)
+                            pending = new ArrayDeque<>();
+                        pending.push(parent);
+                    }
+                }
+            }
+        }
+    }
+
+    //node is locked. Returns the next node to look at, null if done
+    private Node<E> fixHeight(Node<E> node) {
+        int condition = nodeCondition(node);
+        switch (condition) {
+            case REBALANCE_REQUIRED:
+            case UNLINK_REQUIRED:
+                return node;
+            case NOTHING_REQUIRED:
+                return null;
+            default:
+                node.height = condition;
+                return node.parent;
+        }
+    }
+
+    //parent and node are locked. Returns the next node to look at, null if done
+    private Node<E> rebalance(Node<E> parent, Node<E> node) {
+        Node<E> left = node.left;
+        Node<E> right = node.right;
+
+        if ((left == null || right == null) && !node.present)
+            return attemptUnlink(parent, node) ? fixHeight(parent) : node;
+
+        int hL = height(left);
+        int hR = height(right);
+        int balance = hL - hR;
+
+        if (balance > 1)
+            return rebalanceToRight(parent, node, left, hR);
+        if (balance < -1)
+            return rebalanceToLeft(parent, node, right, hL);
+
+        int newHeight = 1 + Math.max(hL, hR);
+        if (newHeight != node.height) {
+            node.height = newHeight;
+            return fixHeight(parent);
+        }
+        return null;
+    }
+
+    //parent and node are locked, node has at most one child and is not present
+    private boolean attemptUnlink(Node<E> parent, Node<E> node) {
+        Node<E> parentLeft = parent.left;
+        Node<E> parentRight = parent.right;
+        if (parentLeft != node && parentRight != node)
+            return false;
+
+        Node<E> left = node.left;
+        Node<E> right = node.right;
+        if (left != null && right != null)
+            return false;
+
+        Node<E> splice = (left != null) ? left : right;
+        if (parentLeft == node)
+            parent.left = splice;
+        else
+            parent.right = splice;
+        if (splice != null)
+            splice.parent = parent;
+
+        node.version = UNLINKED;
+        node.present = false;
+        return true;
+    }
+
+    //node is left heavy. LL when the left child leans left (or is even), LR otherwise
+    private Node<E> rebalanceToRight(Node<E> parent, Node<E> node, Node<E> left, int hR0) {
+        synchronized (left) {
+            int hL = left.height;
+            if (hL - hR0 <= 1)
+                return node;
+
+            Node<E> leftRight = left.right;
+            int hLL0 = height(left.left);
+            int hLR0 = height(leftRight);
+            if (hLL0 >= hLR0)
+                return rightRotate(parent, node, left, hR0, hLL0, leftRight, hLR0);
+
+            synchronized (leftRight) {
+                int hLR = leftRight.height;
+                if (hLL0 >= hLR)
+                    return rightRotate(parent, node, left, hR0, hLL0, leftRight, hLR);
+
+                int hLRL = height(leftRight.left);
+                int balance = hLL0 - hLRL;
+                // only do both rotations at once if they leave left balanced and with nothing to unlink
+                if (balance >= -1 && balance <= 1 && !((left.left == null || leftRight.left == null) && !left.present))
+                    return doubleRightRotate(parent, node, left, hR0, hLL0, leftRight, hLRL);
+
+                // otherwise just rotate leftRight up over left, fixHeight(node) sends the walk back to node
+                // which then takes the LL case. (Going through rebalanceToLeft here would stop, left is not out of balance)
+                return leftRotation(node, left, hLL0, leftRight, leftRight.left, hLRL, height(leftRight.right));
+            }
+        }
+    }
+
+    //node is right heavy. RR when the right child leans right (or is even), RL otherwise
+    private Node<E> rebalanceToLeft(Node<E> parent, Node<E> node, Node<E> right, int hL0) {
+        synchronized (right) {
+            int hR = right.height;
+            if (hL0 - hR >= -1)
+                return node;
+
+            Node<E> rightLeft = right.left;
+            int hRL0 = height(rightLeft);
+            int hRR0 = height(right.right);
+            if (hRR0 >= hRL0)
+                return leftRotation(parent, node, hL0, right, rightLeft, hRL0, hRR0);
+
+            synchronized (rightLeft) {
+                int hRL = rightLeft.height;
+                if (hRR0 >= hRL)
+                    return leftRotation(parent, node, hL0, right, rightLeft, hRL, hRR0);
+
+                int hRLR = height(rightLeft.right);
+                int balance = hRR0 - hRLR;
+                if (balance >= -1 && balance <= 1 && !((right.right == null || rightLeft.right == null) && !right.present))
+                    return doubleLeftRotation(parent, node, hL0, right, rightLeft, hRR0, hRLR);
+
+                return rightRotate(node, right, rightLeft, hRR0, height(rightLeft.left), rightLeft.right, hRLR);
+            }
+        }
+    }
+
+    //Right Rotation, parent, node and left are locked
+    //node moves down, so its version is marked SHRINKING for the duration
+    private Node<E> rightRotate(Node<E> parent, Node<E> node, Node<E> left, int hR, int hLL, Node<E> leftRight, int hLR) {
+        long nodeV = node.version;
+        Node<E> parentLeft = parent.left;
+
+        node.version = nodeV | SHRINKING;
+
+        // do the rotation
+        node.left = leftRight;
+        if (leftRight != null)
+            leftRight.parent = node;
+        left.right = node;
+        node.parent = left;
+        if (parentLeft == node)
+            parent.left = left;
+        else
+            parent.right = left;
+        left.parent = parent;
+
+        //Change the heights
+        int hNode = 1 + Math.max(hLR, hR);
+        node.height = hNode;
+        left.height = 1 + Math.max(hLL, hNode);
+
+        node.version = nodeV + SHRINK_COUNT;
+
+        // see if either node moved needs more work before going up
+        int balanceNode = hLR - hR;
+        if (balanceNode < -1 || balanceNode > 1)
+            return node;
+        if ((leftRight == null || node.right == null) && !node.present)
+            return node;
+        int balanceLeft = hLL - hNode;
+        if (balanceLeft < -1 || balanceLeft > 1)
+            return left;
+        if (left.left == null && !left.present)
+            return left;
+        return fixHeight(parent);
+    }
+
+    //Left Rotation, parent, node and right are locked
+    private Node<E> leftRotation(Node<E> parent, Node<E> node, int hL, Node<E> right, Node<E> rightLeft, int hRL, int hRR) {
+        long nodeV = node.version;
+        Node<E> parentLeft = parent.left;
+
+        node.version = nodeV | SHRINKING;
+
+        //Perform Rotation
+        node.right = rightLeft;
+        if (rightLeft != null)
+            rightLeft.parent = node;
+        right.left = node;
+        node.parent = right;
+        if (parentLeft == node)
+            parent.left = right;
+        else
+            parent.right = right;
+        right.parent = parent;
+
+        //Update the heights
+        int hNode = 1 + Math.max(hL, hRL);
+        node.height = hNode;
+        right.height = 1 + Math.max(hNode, hRR);
+
+        node.version = nodeV + SHRINK_COUNT;
+
+        int balanceNode = hRL - hL;
+        if (balanceNode < -1 || balanceNode > 1)
+            return node;
+        if ((rightLeft == null || node.left == null) && !node.present)
+            return node;
+        int balanceRight = hRR - hNode;
+        if (balanceRight < -1 || balanceRight > 1)
+            return right;
+        if (right.right == null && !right.present)
+            return right;
+        return fixHeight(parent);
+    }
+
+    //LR case in one step: leftRight comes up over left and node, parent, node, left and leftRight are locked
+    private Node<E> doubleRightRotate(Node<E> parent, Node<E> node, Node<E> left, int hR, int hLL, Node<E> leftRight, int hLRL) {
+        long nodeV = node.version;
+        long leftV = left.version;
+        Node<E> parentLeft = parent.left;
+        Node<E> leftRightLeft = leftRight.left;
+        Node<E> leftRightRight = leftRight.right;
+        int hLRR = height(leftRightRight);
+
+        node.version = nodeV | SHRINKING;
+        left.version = leftV | SHRINKING;
+
+        node.left = leftRightRight;
+        if (leftRightRight != null)
+            leftRightRight.parent = node;
+        left.right = leftRightLeft;
+        if (leftRightLeft != null)
+            leftRightLeft.parent = left;
+        leftRight.left = left;
+        left.parent = leftRight;
+        leftRight.right = node;
+        node.parent = leftRight;
+        if (parentLeft == node)
+            parent.left = leftRight;
+        else
+            parent.right = leftRight;
+        leftRight.parent = parent;
+
+        int hNode = 1 + Math.max(hLRR, hR);
+        node.height = hNode;
+        int hLeft = 1 + Math.max(hLL, hLRL);
+        left.height = hLeft;
+        leftRight.height = 1 + Math.max(hLeft, hNode);
+
+        node.version = nodeV + SHRINK_COUNT;
+        left.version = leftV + SHRINK_COUNT;
+
+        // rebalanceToRight only gets here if left ends up balanced
+        int balanceNode = hLRR - hR;
+        if (balanceNode < -1 || balanceNode > 1)
+            return node;
+        if ((leftRightRight == null || node.right == null) && !node.present)
+            return node;
+        int balanceTop = hLeft - hNode;
+        if (balanceTop < -1 || balanceTop > 1)
+            return leftRight;
+        return fixHeight(parent);
+    }
+
+    //RL case in one step: rightLeft comes up over right and node, parent, node, right and rightLeft are locked
+    private Node<E> doubleLeftRotation(Node<E> parent, Node<E> node, int hL, Node<E> right, Node<E> rightLeft, int hRR, int hRLR) {
+        long nodeV = node.version;
+        long rightV = right.version;
+        Node<E> parentLeft = parent.left;
+        Node<E> rightLeftLeft = rightLeft.left;
+        Node<E> rightLeftRight = rightLeft.right;
+        int hRLL = height(rightLeftLeft);
+
+        node.version = nodeV | SHRINKING;
+        right.version = rightV | SHRINKING;
+
+        node.right = rightLeftLeft;
+        if (rightLeftLeft != null)
+            rightLeftLeft.parent = node;
+        right.left = rightLeftRight;
+        if (rightLeftRight != null)
+            rightLeftRight.parent = right;
+        rightLeft.right = right;
+        right.parent = rightLeft;
+        rightLeft.left = node;
+        node.parent = rightLeft;
+        if (parentLeft == node)
+            parent.left = rightLeft;
+        else
+            parent.right = rightLeft;
+        rightLeft.parent = parent;
+
+        int hNode = 1 + Math.max(hL, hRLL);
+        node.height = hNode;
+        int hRight = 1 + Math.max(hRLR, hRR);
+        right.height = hRight;
+        rightLeft.height = 1 + Math.max(hNode, hRight);
+
+        node.version = nodeV + SHRINK_COUNT;
+        right.version = rightV + SHRINK_COUNT;
+
+        int balanceNode = hRLL - hL;
+        if (balanceNode < -1 || balanceNode > 1)
+            return node;
+        if ((rightLeftLeft == null || node.left == null) && !node.present)
+            return node;
+        int balanceTop = hRight - hNode;
+        if (balanceTop < -1 || balanceTop > 1)
+            return rightLeft;
+        return fixHeight(parent);
+    }
+
+    // Nearest present element below node.child(dir) past item (at item too when inclusive), null if none.
+    // near is the side of a node holding the elements closer to item: left when ascending, right when descending
+    private Object attemptNearest(E item, boolean inclusive, int near, Node<E> node, int dir, long nodeV) {
+        while (true) {
+            Node<E> child = node.child(dir);
+            if (node.version != nodeV)
+                return RETRY;
+            if (child == null)
+                return null;
+
+            long childV = child.version;
+            if ((childV & SHRINKING) != 0) {
+                waitUntilShrinkCompleted(child, childV);
+                continue;
+            }
+            if (isUnlinked(childV) || child != node.child(dir))
+                continue;
+            if (node.version != nodeV)
+                return RETRY;
+
+            // > 0 when child is past item in the scan direction, a null item is before everything
+            int past = (item == null) ? 1 : -near * child.element.compareTo(item);
+
+            Object result;
+            if (past > 0) {
+                result = attemptNearest(item, inclusive, near, child, near, childV);
+                if (result == RETRY)
+                    continue;
+                if (result != null)
+                    return result;
+                if (child.present)
+                    return child.element;
+                result = attemptNearest(item, inclusive, near, child, -near, childV);
+            } else if (past == 0 && inclusive && child.present) {
+                return child.element;
+            } else {
+                result = attemptNearest(item, inclusive, near, child, -near, childV);
+            }
+
+            if (result != RETRY)
+                return result;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private E nearest(E item, boolean inclusive, boolean descending) {
+        // the root holder's version never changes, so this never has to retry
+        return (E) attemptNearest(item, inclusive, descending ? 1 : -1, rootHolder, 1, 0);
+    }
+
+    private void stats(Node<E> node, int depth, TreeStats.Builder builder, int[] types) {
+        if (node != null) {
+            builder.node(depth, node.present ? 1 : 0);
+            types[node.present ? 0 : 1]++;
+            stats(node.left, depth + 1, builder, types);
+            stats(node.right, depth + 1, builder, types);
+        }
+    }
+
+    //MARK: - Interface Methods ------------------------------------------------------------------
+
+    @Override
+    public void insert(E item) {
+        add(item);
+    }
+
+    @Override
+    public boolean find(E item) {
+        // the root holder's version never changes, so this never has to retry
+        return (Boolean) attemptFind(item, rootHolder, 1, 0);
+    }
+
+    @Override
+    public boolean findIsReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void delete(E item) {
+        remove(item);
+    }
+
+    @Override
+    public int height() {
+        return height(rootHolder.right);
+    }
+
+    @Override
+    public int size() {
+        return size.intValue();
+    }
+
+    @Override
+    public TreeStats stats() {
+        TreeStats.Builder builder = new TreeStats.Builder();
+        int[] types = new int[2];
+        stats(rootHolder.right, 0, builder, types);
+        return builder.type("present", types[0])
+                .type("routing", types[1])
+                .build();
+    }
+
+    @Override
+    public Iterator<E> range(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+        return new Cursor(from, fromInclusive, to, toInclusive, descending);
+    }
+
+    //MARK: - Cursor ------------------------------------------------------------------
+
+    //Looks up the next element from the root on every step, so it never holds on to nodes a writer may move
+    private class Cursor implements Iterator<E> {
+        private final Bounds<E> bounds;
+        private final boolean descending;
+        private E next;
+
+        Cursor(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+            this.bounds = new Bounds<>(from, fromInclusive, to, toInclusive);
+            this.descending = descending;
+            advance(descending ? nearest(to, toInclusive, true) : nearest(from, fromInclusive, false));
+        }
+
+        //Keep candidate unless it is past the end bound
+        private void advance(E candidate) {
+            if (candidate != null && (descending ? bounds.aboveLow(candidate) : bounds.belowHigh(candidate)))
+                next = candidate;
+            else
+                next = null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (next == null)
+                throw new NoSuchElementException();
+            E element = next;
+            advance(nearest(element, false, descending));
+            return element;
+        }
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    //Returns true if item was not in the tree before
+    public boolean add(E item) {
+        boolean added = (Boolean) attemptAdd(item, rootHolder, 1, 0);
+        if (added)
+            size.increment();
+        return added;
+    }
+
+    //Returns true if item was in the tree before
+    public boolean remove(E item) {
+        boolean removed = (Boolean) attemptRemove(item, rootHolder, 1, 0);
+        if (removed)
+            size.decrement();
+        return removed;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+Thread-safe wrapper around one of the non-self-adjusting trees (AVL, RedBlack, Tree234, BTree, ...) using a StampedLock
+find and size first run without any lock under an optimistic stamp and only take the read lock
+if a writer got in between, so readers never block each other and rarely block on writers.
+insert, delete and insertAll take the write lock, everything else takes the read lock.
+range copies the items under the read lock and returns a cursor over that copy,
+so callers can take their time without holding up writers.
+Trees whose find is not read-only (see BalanceTree.findIsReadOnly) are rejected, even behind another wrapper:
+a Splay's find rotates the tree and is a write.
+The wrapped tree must only be used through the wrapper afterwards.
+ */
+
+package trees;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+public class ConcurrentBalanceTree<E extends Comparable<E>> implements BalanceTree<E> {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    private final BalanceTree<E> tree;
+    private final StampedLock lock = new StampedLock();
+
+    public ConcurrentBalanceTree(BalanceTree<E> tree) {
+        if (!tree.findIsReadOnly()) {
+            throw new IllegalArgumentException(tree.getClass().getSimpleName()
+                    + "'s find can change the tree, so it cannot be read optimistically");
+        }
+        this.tree = tree;
+    }
+
+    //MARK: - Interface Methods ------------------------------------------------------------------
+
+    @Override
+    public void insert(E item) {
+        long stamp = lock.writeLock();
+        try {
+            tree.insert(item);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // An optimistic find can see a tree halfway through a rotation or split: the trees' finds are bounded,
+    // so the worst it can do is return garbage or throw, and validate tells us to ignore both
+    @Override
+    public boolean find(E item) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                boolean found = tree.find(item);
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            } catch (RuntimeException e) {
+                // a real error (e.g. a null item) fails the same way under the read lock
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return tree.find(item);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // only trees whose find is read-only get wrapped
+    @Override
+    public boolean findIsReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void delete(E item) {
+        long stamp = lock.writeLock();
+        try {
+            tree.delete(item);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int height() {
+        long stamp = lock.readLock();
+        try {
+            return tree.height();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // size is a field read in all three trees, so it is cheap to retry
+    @Override
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int size = tree.size();
+        if (stamp != 0 && lock.validate(stamp)) {
+            return size;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return tree.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public TreeStats stats() {
+        long stamp = lock.readLock();
+        try {
+            return tree.stats();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // The trees' cursors walk parent pointers and path stacks with no bound per step, which a racing writer
+    // could send round in circles, so ranges are copied under the read lock instead of optimistically
+    @Override
+    public Iterator<E> range(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+        List<E> items = new ArrayList<>();
+        long stamp = lock.readLock();
+        try {
+            tree.range(from, fromInclusive, to, toInclusive, descending).forEachRemaining(items::add);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return items.iterator();
+    }
+
+    @Override
+    public void insertAll(E[] sorted) {
+        long stamp = lock.writeLock();
+        try {
+            tree.insertAll(sorted);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public BitSet findAll(E[] sorted) {
+        long stamp = lock.readLock();
+        try {
+            return tree.findAll(sorted);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package trees;
+
+import java.util.Scanner;
+
+public class Driver {
+    public static void main(String[] args) {
+
+        // Test Cases for AVL: (Uncomment to see)
+        //Tests.testAVL();
+
+        // Test Cases for IntAVL: (Uncomment to see)
+        //Tests.testIntAVL();
+
+        //Test Cases for Splay: (Uncomment to see)
+        //Tests.testSplay();
+        //Tests.testSplaySequential();
+
+        //Test Cases for RedBlack: (Uncomment to see)
+        //Tests.testRedBlack();
+
+        //Test Cases for Off-Heap RedBlack: (Uncomment to see)
+        //Tests.testOffHeapRedBlack();
+
+        //Test Cases for 2-3-4: (Uncomment to see)
+        //Tests.testTree234();
+
+        //Test Cases for the B-Tree of configurable order: (Uncomment to see)
+        //Tests.testBTree();
+
+        //Test Cases for the file-backed B-Tree, including reopening the file: (Uncomment to see)
+        //Tests.testPagedBTree();
+
+        //Test Cases for the thread-safe wrapper: (Uncomment to see)
+        //Tests.testConcurrentBalanceTree();
+
+        //Test Cases for Concurrent AVL, including the linearizability stress test: (Uncomment to see)
+        //Tests.testConcurrentAVL();
+
+        //Test Cases for the key-range sharded tree: (Uncomment to see)
+        //Tests.testShardedTree();
+
+        //Test Cases for Persistent AVL, including snapshots read while a writer runs: (Uncomment to see)
+        //Tests.testPersistentAVL();
+
+        //Test Cases for the write-ahead logged tree, including recovery into each tree type: (Uncomment to see)
+        //Tests.testDurableTree();
+
+        //Test Cases for the operation counters, needs -Dtrees.metrics=true: (Uncomment to see)
+        //Tests.testTreeMetrics();
+
+        //Test Cases for the latency histogram wrapper, including CSV export: (Uncomment to see)
+        //Tests.testLatencyTree();
+
+    }
+}
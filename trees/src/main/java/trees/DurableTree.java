@@ -0,0 +1,519 @@
+/*
+Durable wrapper for any BalanceTree (AVL, RedBlack, Splay, Tree234, ...) backed by a write-ahead log in a directory
+insert / delete: Change the tree, append the operation to the log and return once the log is on disk
+Group commit: a caller that finds its record not yet on disk and no write running becomes the leader, waits out
+the commit window for more callers to append, then writes and fsyncs all of them at once; the callers that
+arrived meanwhile sleep until it is done, find their records already durable and return without an fsync of their own. With groupCommit off every
+operation writes and fsyncs its own record while holding the tree, the baseline group commit is measured against.
+Checkpoint: every checkpointEvery operations (or on checkpoint()) the keys are written in ascending order
+to a new checkpoint file, which atomically replaces the old one, and the log starts over empty.
+Recovery: the constructor loads the checkpoint into the (empty) tree and replays the log on top of it,
+stopping at the first torn or corrupt record, which is cut off.
+Log record: payload length (int) | CRC32 of the payload (int) | payload = operation (byte) + key in the KeyCodec's format
+Every operation on the tree is serialized by the wrapper, so the wrapped tree must not be used directly afterwards.
+Other threads can see an insert or delete before it is durable, the caller only returns after it is.
+ */
+
+package trees;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+public class DurableTree<E extends Comparable<E>> implements BalanceTree<E>, AutoCloseable {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    private static final byte INSERT = 1;
+    private static final byte DELETE = 2;
+    //length and checksum in front of every payload
+    private static final int RECORD_HEADER = 8;
+
+    public static final int DEFAULT_CHECKPOINT_EVERY = 1 << 20;
+
+    private final BalanceTree<E> tree;
+    private final KeyCodec<E> codec;
+    private final Path directory;
+    private final Path logFile;
+    private final Path checkpointFile;
+    private final FileChannel log;
+
+    private final boolean groupCommit;
+    private final long commitWindowNanos;
+    private final int checkpointEvery;
+
+    //Guarded by this: the tree, the records not yet written and the counters below
+    private RecordBuffer pending = new RecordBuffer();
+    private final RecordBuffer payload = new RecordBuffer();
+    private final DataOutputStream payloadOut = new DataOutputStream(payload);
+    private final CRC32 crc = new CRC32();
+    //sequence number of the last record appended
+    private long appended;
+    private long sinceCheckpoint;
+    private boolean closed;
+    private IOException failure;
+
+    //Owned by the leader while flushing is set, and by whoever holds commitLock otherwise:
+    //the buffer being written and where the log ends
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final Condition flushed = commitLock.newCondition();
+    private boolean flushing;
+    private RecordBuffer writing = new RecordBuffer();
+    private long logEnd;
+    //sequence number of the last record known to be on disk, only ever grows
+    private volatile long durable;
+    private volatile long fsyncs;
+
+    //ByteArrayOutputStream that hands out its bytes without copying them
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+        RecordBuffer() {
+            super(1 << 12);
+        }
+
+        ByteBuffer view() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    //Group commit with no added wait: callers still share an fsync whenever they arrive while one is running
+    public DurableTree(BalanceTree<E> tree, Path directory, KeyCodec<E> codec) throws IOException {
+        this(tree, directory, codec, true, 0, DEFAULT_CHECKPOINT_EVERY);
+    }
+
+    //commitWindowMicros is how long a leader waits for more records before its fsync, 0 for not at all
+    //checkpointEvery 0 turns the automatic checkpoints off
+    public DurableTree(BalanceTree<E> tree, Path directory, KeyCodec<E> codec,
+                       boolean groupCommit, long commitWindowMicros, int checkpointEvery) throws IOException {
+        if (tree.size() != 0) {
+            throw new IllegalArgumentException("the tree is rebuilt from the log and must start out empty");
+        }
+        if (commitWindowMicros < 0 || checkpointEvery < 0) {
+            throw new IllegalArgumentException("commit window and checkpoint interval cannot be negative");
+        }
+        this.tree = tree;
+        this.codec = codec;
+        this.directory = directory;
+        this.groupCommit = groupCommit;
+        this.commitWindowNanos = TimeUnit.MICROSECONDS.toNanos(commitWindowMicros);
+        this.checkpointEvery = checkpointEvery;
+
+        Files.createDirectories(directory);
+        logFile = directory.resolve("wal");
+        checkpointFile = directory.resolve("checkpoint");
+
+        if (Files.exists(checkpointFile)) {
+            loadCheckpoint();
+        }
+        log = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            logEnd = replay();
+            if (logEnd < log.size()) {
+                log.truncate(logEnd);
+                log.force(false);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+    }
+
+    //MARK: - Recovery ------------------------------------------------------------------
+
+    //The checkpoint is sorted, so it goes in as one batch and AVL / RedBlack can share the descent
+    @SuppressWarnings("unchecked")
+    private void loadCheckpoint() throws IOException {
+        ByteBuffer in = SnapshotFile.map(checkpointFile, SnapshotFile.CHECKPOINT);
+        try {
+            int size = in.getInt();
+            E[] keys = (E[]) new Comparable[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = codec.read(in);
+            }
+            tree.insertAll(keys);
+        } catch (RuntimeException e) {
+            throw new IOException("checkpoint is truncated or corrupt: " + checkpointFile, e);
+        }
+    }
+
+    //Applies every complete record to the tree and returns where the last one ends
+    private long replay() throws IOException {
+        long size = log.size();
+        if (size == 0) {
+            return 0;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("log is larger than 2 GiB: " + logFile);
+        }
+        MappedByteBuffer in = log.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+        int end = 0;
+        while (in.remaining() >= RECORD_HEADER) {
+            int length = in.getInt();
+            int checksum = in.getInt();
+            if (length < 1 || length > in.remaining()) {
+                break;
+            }
+            ByteBuffer record = in.slice(in.position(), length);
+            crc.reset();
+            crc.update(record.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            // the checksum matched, so a record we cannot decode means the codec is not the one it was written with
+            try {
+                byte operation = record.get();
+                E key = codec.read(record);
+                if (operation == INSERT) {
+                    tree.insert(key);
+                } else if (operation == DELETE) {
+                    tree.delete(key);
+                } else {
+                    throw new IOException("unknown log operation " + operation + " at " + end);
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("log record at " + end + " does not decode with this codec", e);
+            }
+            in.position(in.position() + length);
+            end = in.position();
+            sinceCheckpoint++;
+        }
+        return end;
+    }
+
+    //MARK: - Log ------------------------------------------------------------------
+
+    //Appends one record to pending and returns its sequence number, called holding this
+    private long append(byte operation, E item) {
+        if (closed) {
+            throw new IllegalStateException("tree is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("log failed earlier, the tree may be ahead of it", failure);
+        }
+        try {
+            payload.reset();
+            payloadOut.writeByte(operation);
+            codec.write(item, payloadOut);
+            crc.reset();
+            crc.update(payload.view());
+
+            DataOutputStream out = new DataOutputStream(pending);
+            out.writeInt(payload.size());
+            out.writeInt((int) crc.getValue());
+            payload.writeTo(pending);
+        } catch (IOException e) {
+            // only the codec can get here, pending is in memory
+            throw new UncheckedIOException(e);
+        }
+        sinceCheckpoint++;
+        return ++appended;
+    }
+
+    //Writes buffer at the end of the log and fsyncs it, called by the leader or (without group commit) holding this
+    private void writeAndForce(RecordBuffer buffer) throws IOException {
+        ByteBuffer bytes = buffer.view();
+        while (bytes.hasRemaining()) {
+            logEnd += log.write(bytes, logEnd);
+        }
+        buffer.reset();
+        log.force(false);
+        fsyncs++;
+    }
+
+    //Returns once record sequence is on disk, leading a write of it and everything before it if no one else is
+    //The leader lets go of commitLock while it waits and writes, so the callers it has made durable can leave
+    //and append again instead of queueing behind the next leader's window
+    private void commit(long sequence) {
+        if (durable >= sequence) {
+            return;
+        }
+        commitLock.lock();
+        try {
+            while (durable < sequence) {
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+                flushing = true;
+                commitLock.unlock();
+                try {
+                    flush();
+                } finally {
+                    commitLock.lock();
+                    flushing = false;
+                    flushed.signalAll();
+                }
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    //The leader's part: wait out the window, take everything appended so far and make it durable
+    private void flush() {
+        if (commitWindowNanos > 0) {
+            long deadline = System.nanoTime() + commitWindowNanos;
+            for (long left = commitWindowNanos; left > 0; left = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(left);
+            }
+        }
+
+        RecordBuffer batch;
+        long upTo;
+        synchronized (this) {
+            if (failure != null) {
+                throw new UncheckedIOException("log failed earlier, the tree may be ahead of it", failure);
+            }
+            batch = pending;
+            pending = writing;
+            writing = batch;
+            upTo = appended;
+        }
+        try {
+            writeAndForce(batch);
+        } catch (IOException e) {
+            synchronized (this) {
+                failure = e;
+            }
+            throw new UncheckedIOException(e);
+        }
+        durable = upTo;
+    }
+
+    //Called holding commitLock, so no leader can start while the caller has the log to itself
+    private void awaitFlush() {
+        while (flushing) {
+            flushed.awaitUninterruptibly();
+        }
+    }
+
+    //Without group commit the record is written and fsynced before anyone else can touch the tree
+    private void appendAndCommit(byte operation, E item) {
+        long sequence;
+        synchronized (this) {
+            // logged first, so a key the codec cannot write never reaches the tree
+            sequence = append(operation, item);
+            if (operation == INSERT) {
+                tree.insert(item);
+            } else {
+                tree.delete(item);
+            }
+            if (!groupCommit) {
+                try {
+                    writeAndForce(pending);
+                } catch (IOException e) {
+                    failure = e;
+                    throw new UncheckedIOException(e);
+                }
+                durable = sequence;
+            }
+        }
+        if (groupCommit) {
+            commit(sequence);
+        }
+        checkpointIfDue();
+    }
+
+    //MARK: - Checkpoint ------------------------------------------------------------------
+
+    private void checkpointIfDue() {
+        if (checkpointDue()) {
+            try {
+                checkpoint(true);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private synchronized boolean checkpointDue() {
+        return checkpointEvery > 0 && sinceCheckpoint >= checkpointEvery;
+    }
+
+    //Writers wait while the keys are written out; the log is only emptied once the new checkpoint is safely in place
+    private void checkpoint(boolean onlyIfDue) throws IOException {
+        commitLock.lock();
+        try {
+            awaitFlush();
+            synchronized (this) {
+                if (closed || (onlyIfDue && !checkpointDue())) {
+                    return;
+                }
+                if (failure != null) {
+                    throw new IOException("log failed earlier, the tree may be ahead of it", failure);
+                }
+
+                Path temporary = directory.resolve("checkpoint.tmp");
+                try (DataOutputStream out = SnapshotFile.create(temporary, SnapshotFile.CHECKPOINT, tree.size())) {
+                    for (Iterator<E> keys = tree.ascending(); keys.hasNext(); ) {
+                        codec.write(keys.next(), out);
+                    }
+                }
+                try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                    file.force(true);
+                }
+                Files.move(temporary, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                forceDirectory();
+
+                // a crash before this point replays the old log over the new checkpoint,
+                // which ends in the same state since every record sets its key's presence outright
+                pending.reset();
+                log.truncate(0);
+                log.force(false);
+                logEnd = 0;
+                durable = appended;
+                sinceCheckpoint = 0;
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    //Makes the rename itself durable; not every platform lets a directory be opened, those make renames durable anyway
+    private void forceDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // nothing more we can do here
+        }
+    }
+
+    //MARK: - Interface Methods ------------------------------------------------------------------
+
+    @Override
+    public void insert(E item) {
+        appendAndCommit(INSERT, item);
+    }
+
+    @Override
+    public synchronized boolean find(E item) {
+        return tree.find(item);
+    }
+
+    @Override
+    public boolean findIsReadOnly() {
+        return tree.findIsReadOnly();
+    }
+
+    @Override
+    public void delete(E item) {
+        appendAndCommit(DELETE, item);
+    }
+
+    @Override
+    public synchronized int height() {
+        return tree.height();
+    }
+
+    @Override
+    public synchronized int size() {
+        return tree.size();
+    }
+
+    @Override
+    public synchronized TreeStats stats() {
+        return tree.stats();
+    }
+
+    // Copied under the lock like ConcurrentBalanceTree, so a slow caller doesn't hold up writers
+    @Override
+    public Iterator<E> range(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+        List<E> items = new ArrayList<>();
+        synchronized (this) {
+            tree.range(from, fromInclusive, to, toInclusive, descending).forEachRemaining(items::add);
+        }
+        return items.iterator();
+    }
+
+    // The whole batch goes to the tree and the log together and waits for a single commit
+    @Override
+    public void insertAll(E[] sorted) {
+        SortedInput.checkBatch(sorted);
+        long sequence;
+        synchronized (this) {
+            sequence = appended;
+            for (int i = 0; i < sorted.length; i++) {
+                try {
+                    sequence = append(INSERT, sorted[i]);
+                } catch (RuntimeException e) {
+                    // keep the tree in step with the records that did make it into the log
+                    for (int j = 0; j < i; j++) {
+                        tree.insert(sorted[j]);
+                    }
+                    throw e;
+                }
+            }
+            tree.insertAll(sorted);
+            if (!groupCommit && sorted.length > 0) {
+                try {
+                    writeAndForce(pending);
+                } catch (IOException e) {
+                    failure = e;
+                    throw new UncheckedIOException(e);
+                }
+                durable = sequence;
+            }
+        }
+        if (groupCommit) {
+            commit(sequence);
+        }
+        checkpointIfDue();
+    }
+
+    @Override
+    public synchronized BitSet findAll(E[] sorted) {
+        return tree.findAll(sorted);
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    //Writes a checkpoint now and empties the log
+    public void checkpoint() throws IOException {
+        checkpoint(false);
+    }
+
+    //Number of fsyncs of the log so far, one per batch with group commit
+    public long fsyncs() {
+        return fsyncs;
+    }
+
+    //Anything appended is already durable, so this only waits out a commit in progress and closes the log
+    @Override
+    public void close() throws IOException {
+        commitLock.lock();
+        try {
+            awaitFlush();
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                if (pending.size() > 0 && failure == null) {
+                    writeAndForce(pending);
+                    durable = appended;
+                }
+                log.close();
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+}
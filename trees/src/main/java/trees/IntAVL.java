@@ -0,0 +1,304 @@
+/*
+AVL Tree specialized for int keys, same operations and balancing as AVL
+Nodes live in parallel int arrays (key, left, right, height) and are referred to by index,
+so there is no boxing and no Node object per key. Deleted slots go on a free list and are reused,
+the arrays only grow (by doubling) when the free list is empty.
+Plus two additional Methods heightAVL and printAVL
+HeightAVL: Prints the height of the node containing the key
+printAVL: Print the key and the corresponding balance factor for the key.
+ */
+
+package trees;
+
+import java.util.Arrays;
+
+public class IntAVL {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    //index used for a missing child / empty tree
+    private static final int NIL = -1;
+
+    //node pool, node i is (key[i], left[i], right[i], height[i])
+    private int[] key;
+    private int[] left;
+    private int[] right;
+    private int[] height;
+
+    //root of the AVL
+    private int root;
+    //next never-used slot
+    private int next;
+    //head of the free list, free slots are chained through left[]
+    private int free;
+    private int size;
+
+    //Constructor for IntAVL class
+    public IntAVL() {
+        this(16);
+    }
+
+    public IntAVL(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        key = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        height = new int[capacity];
+        root = NIL;
+        next = 0;
+        free = NIL;
+        size = 0;
+    }
+
+    //MARK: - Helper Methods ------------------------------------------------------------------
+
+    //Take a slot from the free list, or a new one from the end of the arrays
+    private int newNode(int item) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = left[node];
+        } else {
+            if (next == key.length) {
+                grow();
+            }
+            node = next++;
+        }
+        key[node] = item;
+        left[node] = NIL;
+        right[node] = NIL;
+        height[node] = 0;
+        size++;
+        return node;
+    }
+
+    //Return a slot to the free list
+    private void freeNode(int node) {
+        left[node] = free;
+        free = node;
+        size--;
+    }
+
+    private void grow() {
+        int capacity = key.length * 2;
+        key = Arrays.copyOf(key, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        height = Arrays.copyOf(height, capacity);
+    }
+
+    //Get the height of the Node
+    private int height(int node) {
+        //if the node is null return -1
+        return (node == NIL) ? -1 : height[node];
+    }
+
+    //Calc the Balance Factor
+    private int getBalance(int node) {
+        if (node == NIL) return 0;
+        return height(left[node]) - height(right[node]);
+    }
+
+    //Right Rotation
+    private int rightRotate(int y) {
+        int x = left[y];
+        int temp = right[x];
+
+        // do the rotation
+        right[x] = y;
+        left[y] = temp;
+
+        //Change the heights
+        height[y] = Math.max(height(left[y]), height(right[y])) + 1;
+        height[x] = Math.max(height(left[x]), height(right[x])) + 1;
+
+        return x;
+    }
+
+    //Left Rotation
+    private int leftRotation(int x) {
+        int y = right[x];
+        int temp = left[y];
+
+        //Perform Rotation
+        left[y] = x;
+        right[x] = temp;
+
+        //Update the heights
+        height[x] = Math.max(height(left[x]), height(right[x])) + 1;
+        height[y] = Math.max(height(left[y]), height(right[y])) + 1;
+
+        return y;
+    }
+
+    //Find the Node with the minimum value
+    private int minValueNode(int node) {
+        int curr = node;
+        while (left[curr] != NIL)
+            curr = left[curr];
+        return curr;
+    }
+
+    private int findNode(int item) {
+        int node = root;
+        while (node != NIL) {
+            if (item < key[node])
+                node = left[node];
+            else if (item > key[node])
+                node = right[node];
+            else
+                return node;
+        }
+        return NIL;
+    }
+
+    private void printAVL(int node, StringBuilder sb) {
+        if (node != NIL) {
+            printAVL(left[node], sb);
+            sb.append("(").append(key[node]).append(",").append(getBalance(node)).append(")");
+            printAVL(right[node], sb);
+        }
+    }
+
+    //MARK: - Tree Methods ------------------------------------------------------------------
+
+    public void insert(int item) {
+        root = insert(root, item);
+    }
+
+    //Insert Method
+    private int insert(int node, int item) {
+        // BST Insert
+        if (node == NIL)
+            return newNode(item);
+
+        // the child is stored through a local because the recursive call can grow (replace) the arrays
+        if (item < key[node]) {
+            int child = insert(left[node], item);
+            left[node] = child;
+        } else if (item > key[node]) {
+            int child = insert(right[node], item);
+            right[node] = child;
+        } else
+            return node;
+
+        //update height of the curr
+        height[node] = 1 + Math.max(height(left[node]), height(right[node]));
+
+        // Balance Factor
+        int balance = getBalance(node);
+
+        // LL
+        if (balance > 1 && item < key[left[node]]) {
+            return rightRotate(node);
+        }
+
+        // RR
+        if (balance < -1 && item > key[right[node]]) {
+            return leftRotation(node);
+        }
+
+        // LR
+        if (balance > 1 && item > key[left[node]]) {
+            left[node] = leftRotation(left[node]);
+            return rightRotate(node);
+        }
+
+        // RL
+        if (balance < -1 && item < key[right[node]]) {
+            right[node] = rightRotate(right[node]);
+            return leftRotation(node);
+        }
+
+        return node;
+    }
+
+    public boolean find(int item) {
+        return findNode(item) != NIL;
+    }
+
+    public void delete(int item) {
+        root = delete(root, item);
+    }
+
+    private int delete(int root, int item) {
+        // BST Delete
+        if (root == NIL) {
+            return root;
+        }
+
+        if (item < key[root])
+            left[root] = delete(left[root], item);
+        else if (item > key[root])
+            right[root] = delete(right[root], item);
+        else {
+            // One or no children
+            if (left[root] == NIL || right[root] == NIL) {
+                int temp = (left[root] == NIL) ? right[root] : left[root];
+                freeNode(root);
+                // No child (temp is NIL) or one child
+                root = temp;
+            } else {
+                // inorder successor
+                int temp = minValueNode(right[root]);
+                key[root] = key[temp];
+                right[root] = delete(right[root], key[temp]);
+            }
+        }
+
+        //If one node only
+        if (root == NIL)
+            return root;
+
+        //update height
+        height[root] = Math.max(height(left[root]), height(right[root])) + 1;
+
+        int balance = getBalance(root);
+
+        //LL
+        if (balance > 1 && getBalance(left[root]) >= 0)
+            return rightRotate(root);
+
+        // LR
+        if (balance > 1 && getBalance(left[root]) < 0) {
+            left[root] = leftRotation(left[root]);
+            return rightRotate(root);
+        }
+
+        // RR
+        if (balance < -1 && getBalance(right[root]) <= 0)
+            return leftRotation(root);
+
+        // RL
+        if (balance < -1 && getBalance(right[root]) > 0) {
+            right[root] = rightRotate(right[root]);
+            return leftRotation(root);
+        }
+        return root;
+    }
+
+    public int height() {
+        return height(root);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    public void heightAVL(int item) {
+        int node = findNode(item);
+        if (node != NIL) {
+            System.out.println("node height = " + height[node]);
+        } else {
+            System.out.println("Item not found.");
+        }
+    }
+
+    public void printAVL() {
+        StringBuilder sb = new StringBuilder();
+        printAVL(root, sb);
+        System.out.print(sb.toString());
+    }
+}
@@ -0,0 +1,60 @@
+/*
+Turns keys into bytes and back for the tree snapshot files (see AVL.save / RedBlack.save)
+write: Appends one key to out
+read: Reads one key back from in, which is big-endian like DataOutput
+INTEGER, LONG and STRING (length-prefixed UTF-8) cover the common key types, anything else can implement the two methods
+ */
+
+package trees;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public interface KeyCodec<E> {
+
+    void write(E key, DataOutput out) throws IOException;
+
+    E read(ByteBuffer in);
+
+    KeyCodec<Integer> INTEGER = new KeyCodec<>() {
+        @Override
+        public void write(Integer key, DataOutput out) throws IOException {
+            out.writeInt(key);
+        }
+
+        @Override
+        public Integer read(ByteBuffer in) {
+            return in.getInt();
+        }
+    };
+
+    KeyCodec<Long> LONG = new KeyCodec<>() {
+        @Override
+        public void write(Long key, DataOutput out) throws IOException {
+            out.writeLong(key);
+        }
+
+        @Override
+        public Long read(ByteBuffer in) {
+            return in.getLong();
+        }
+    };
+
+    KeyCodec<String> STRING = new KeyCodec<>() {
+        @Override
+        public void write(String key, DataOutput out) throws IOException {
+            byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public String read(ByteBuffer in) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+}
@@ -0,0 +1,160 @@
+/*
+Log-bucketed histogram of latencies in nanoseconds, in the style of HdrHistogram
+Values below 256 get a bucket each; above that every power of two is cut into 128 equal buckets,
+so a bucket is never wider than 1/128 (under 1%) of the values in it. Values from 2^40 ns (about 18 minutes) up
+share the last bucket. That is 4352 counters whatever is recorded.
+record: Adds one value without allocating and without locks (an atomic increment, plus a CAS on a new maximum),
+        so several threads can record into one histogram
+valueAt: The value at a percentile, reported as the top of its bucket (never above the recorded maximum)
+copy: A snapshot of everything recorded so far
+interval: A snapshot of what was recorded since the previous call to interval, with its own maximum
+ */
+
+package trees;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_BITS = 40;
+    private static final int MAX_SHIFT = MAX_BITS - SUB_BUCKET_BITS - 1;
+    private static final int BUCKETS = (MAX_SHIFT + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLong intervalMax = new AtomicLong();
+
+    //counts at the last call to interval, guarded by this
+    private long[] lastInterval;
+
+    public LatencyHistogram() {
+    }
+
+    //MARK: - Helper Methods ------------------------------------------------------------------
+
+    //Keeps the top SUB_BUCKET_BITS + 1 bits of value: the shift picks the power of two, the bits the bucket in it
+    static int index(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS + 1));
+        if (shift > MAX_SHIFT) {
+            return BUCKETS - 1;
+        }
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    //Smallest value that lands in bucket index
+    static long lowestValue(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        return (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+    }
+
+    //Largest value that lands in bucket index
+    static long highestValue(int index) {
+        return (index == BUCKETS - 1) ? Long.MAX_VALUE : lowestValue(index + 1) - 1;
+    }
+
+    private static void raise(AtomicLong maximum, long value) {
+        long current = maximum.get();
+        while (value > current && !maximum.compareAndSet(current, value)) {
+            current = maximum.get();
+        }
+    }
+
+    //Snapshot with the given counts and maximum
+    private static LatencyHistogram of(long[] counts, long max) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                histogram.counts.set(i, counts[i]);
+            }
+        }
+        histogram.max.set(max);
+        histogram.intervalMax.set(max);
+        return histogram;
+    }
+
+    private long[] counts() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return copy;
+    }
+
+    //MARK: - Recording ------------------------------------------------------------------
+
+    public void record(long nanos) {
+        counts.incrementAndGet(index(nanos));
+        raise(max, nanos);
+        raise(intervalMax, nanos);
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    //percentile from 0 to 100, 0 when nothing was recorded
+    public long valueAt(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max());
+            }
+        }
+        return max();
+    }
+
+    public LatencyHistogram copy() {
+        return of(counts(), max());
+    }
+
+    //Counts since the previous call (or since the start), safe to call while other threads record
+    //A value recorded during the call ends up in this interval or the next one, never in neither
+    public synchronized LatencyHistogram interval() {
+        long intervalPeak = intervalMax.getAndSet(0);
+        long[] now = counts();
+        long[] since = now.clone();
+        if (lastInterval != null) {
+            for (int i = 0; i < BUCKETS; i++) {
+                since[i] -= lastInterval[i];
+            }
+        }
+        lastInterval = now;
+        return of(since, intervalPeak);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count %d, p50 %d ns, p99 %d ns, p99.9 %d ns, max %d ns",
+                count(), valueAt(50), valueAt(99), valueAt(99.9), max());
+    }
+}
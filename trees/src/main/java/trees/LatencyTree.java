@@ -0,0 +1,166 @@
+/*
+BalanceTree decorator that times every insert, find and delete into a LatencyHistogram per operation
+Averages hide the tail: a degenerate Splay or a run of Tree234 splits shows up at p99.9, not in the mean.
+Recording costs two System.nanoTime calls and a few atomic increments, with no allocation and no locks,
+so the wrapped tree can be one of the thread-safe ones and be called from many threads.
+Everything else (height, size, stats, range, insertAll, findAll) goes straight through untimed.
+histogram: Everything recorded so far for one operation
+interval: What was recorded since the previous call, per operation, for reporting once every so often
+appendCsv / appendText: Add one row (CSV) or one block (text) per operation to a file, with p50 / p99 / p99.9 / max
+ */
+
+package trees;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+public class LatencyTree<E extends Comparable<E>> implements BalanceTree<E> {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    public static final String CSV_HEADER = "label,operation,count,p50_ns,p99_ns,p99.9_ns,max_ns";
+
+    private final BalanceTree<E> tree;
+    private final LatencyHistogram inserts = new LatencyHistogram();
+    private final LatencyHistogram finds = new LatencyHistogram();
+    private final LatencyHistogram deletes = new LatencyHistogram();
+
+    public LatencyTree(BalanceTree<E> tree) {
+        this.tree = tree;
+    }
+
+    //MARK: - Helper Methods ------------------------------------------------------------------
+
+    private LatencyHistogram recorder(TreeMetrics.Operation operation) {
+        switch (operation) {
+            case INSERT: return inserts;
+            case FIND: return finds;
+            default: return deletes;
+        }
+    }
+
+    private static void append(Path file, String text) throws IOException {
+        Files.writeString(file, text, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    //MARK: - Interface Methods ------------------------------------------------------------------
+
+    @Override
+    public void insert(E item) {
+        long start = System.nanoTime();
+        tree.insert(item);
+        inserts.record(System.nanoTime() - start);
+    }
+
+    @Override
+    public boolean find(E item) {
+        long start = System.nanoTime();
+        boolean found = tree.find(item);
+        finds.record(System.nanoTime() - start);
+        return found;
+    }
+
+    @Override
+    public boolean findIsReadOnly() {
+        return tree.findIsReadOnly();
+    }
+
+    @Override
+    public void delete(E item) {
+        long start = System.nanoTime();
+        tree.delete(item);
+        deletes.record(System.nanoTime() - start);
+    }
+
+    @Override
+    public int height() {
+        return tree.height();
+    }
+
+    @Override
+    public int size() {
+        return tree.size();
+    }
+
+    @Override
+    public TreeStats stats() {
+        return tree.stats();
+    }
+
+    @Override
+    public Iterator<E> range(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+        return tree.range(from, fromInclusive, to, toInclusive, descending);
+    }
+
+    // Batches go to the wrapped tree's own insertAll / findAll, a batch has no per-item latency
+    @Override
+    public void insertAll(E[] sorted) {
+        tree.insertAll(sorted);
+    }
+
+    @Override
+    public BitSet findAll(E[] sorted) {
+        return tree.findAll(sorted);
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    public LatencyHistogram histogram(TreeMetrics.Operation operation) {
+        return recorder(operation).copy();
+    }
+
+    //Everything recorded so far, per operation
+    public Map<TreeMetrics.Operation, LatencyHistogram> total() {
+        Map<TreeMetrics.Operation, LatencyHistogram> histograms = new EnumMap<>(TreeMetrics.Operation.class);
+        for (TreeMetrics.Operation operation : TreeMetrics.Operation.values()) {
+            histograms.put(operation, recorder(operation).copy());
+        }
+        return histograms;
+    }
+
+    //Recorded since the previous call to interval (or since the start), per operation
+    public Map<TreeMetrics.Operation, LatencyHistogram> interval() {
+        Map<TreeMetrics.Operation, LatencyHistogram> histograms = new EnumMap<>(TreeMetrics.Operation.class);
+        for (TreeMetrics.Operation operation : TreeMetrics.Operation.values()) {
+            histograms.put(operation, recorder(operation).interval());
+        }
+        return histograms;
+    }
+
+    //One row per operation under label (e.g. a timestamp or an interval number), the header goes in a new or empty file
+    public static void appendCsv(Path file, String label, Map<TreeMetrics.Operation, LatencyHistogram> histograms)
+            throws IOException {
+        StringBuilder sb = new StringBuilder();
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            sb.append(CSV_HEADER).append(System.lineSeparator());
+        }
+        for (Map.Entry<TreeMetrics.Operation, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            sb.append(label.replace(',', ' ')).append(',')
+                    .append(entry.getKey().name().toLowerCase()).append(',')
+                    .append(histogram.count()).append(',')
+                    .append(histogram.valueAt(50)).append(',')
+                    .append(histogram.valueAt(99)).append(',')
+                    .append(histogram.valueAt(99.9)).append(',')
+                    .append(histogram.max()).append(System.lineSeparator());
+        }
+        append(file, sb.toString());
+    }
+
+    //The same numbers as a human-readable block
+    public static void appendText(Path file, String label, Map<TreeMetrics.Operation, LatencyHistogram> histograms)
+            throws IOException {
+        StringBuilder sb = new StringBuilder(label).append(System.lineSeparator());
+        for (Map.Entry<TreeMetrics.Operation, LatencyHistogram> entry : histograms.entrySet()) {
+            sb.append(String.format("    %-7s %s%n", entry.getKey().name().toLowerCase(), entry.getValue()));
+        }
+        append(file, sb.toString());
+    }
+}
@@ -0,0 +1,555 @@
+/*
+Red-Black Tree for long keys that keeps its nodes off the Java heap
+Same insert/delete fix-up algorithms as RedBlack, but every node is a 24 byte record in a direct ByteBuffer:
+    key (long) | left (int) | right (int) | parent (int) | color (byte) | padding
+Nodes are referred to by a 32-bit index, so a tree of any size only costs the heap the small array of chunk buffers.
+Deleted nodes go on a free list and are reused. close() drops the buffers, after which the tree can't be used.
+Plus two additional Methods statusRB and printRedBlack
+statusRB: print the number of red nodes, black nodes and the black height.
+printRedBlack: print the items and the node color in ascending order.
+ */
+
+package trees;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+public class OffHeapRedBlack implements AutoCloseable {
+
+    //MARK: - Setup ------------------------------------------------------------------
+    private static final boolean RED = true;
+    private static final boolean BLACK = false;
+
+    //index used for a missing child / parent
+    private static final int NIL = -1;
+
+    //node record layout
+    private static final int NODE_BYTES = 24;
+    private static final int KEY = 0;
+    private static final int LEFT = 8;
+    private static final int RIGHT = 12;
+    private static final int PARENT = 16;
+    private static final int COLOR = 20;
+
+    //nodes per chunk (2^20 nodes = 24 MiB), node i lives in chunks[i >>> CHUNK_SHIFT]
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_NODES = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_NODES - 1;
+
+    private ByteBuffer[] chunks;
+    private int chunkCount;
+    //next never-used node index
+    private int next;
+    //head of the free list, free nodes are chained through their left field
+    private int free;
+
+    private int root;
+    private int size;
+    private int blackHeight;
+    private int redCount;
+    private int blackCount;
+
+    //Constructor:
+    public OffHeapRedBlack() {
+        chunks = new ByteBuffer[4];
+        chunkCount = 0;
+        next = 0;
+        free = NIL;
+        root = NIL;
+        size = 0;
+        blackHeight = 0;
+        redCount = 0;
+        blackCount = 0;
+    }
+
+    //MARK: - Node Storage ------------------------------------------------------------------
+
+    private ByteBuffer chunk(int node) {
+        return chunks[node >>> CHUNK_SHIFT];
+    }
+
+    private int offset(int node) {
+        return (node & CHUNK_MASK) * NODE_BYTES;
+    }
+
+    private long key(int node) {
+        return chunk(node).getLong(offset(node) + KEY);
+    }
+
+    private void setKey(int node, long key) {
+        chunk(node).putLong(offset(node) + KEY, key);
+    }
+
+    private int left(int node) {
+        return chunk(node).getInt(offset(node) + LEFT);
+    }
+
+    private void setLeft(int node, int child) {
+        chunk(node).putInt(offset(node) + LEFT, child);
+    }
+
+    private int right(int node) {
+        return chunk(node).getInt(offset(node) + RIGHT);
+    }
+
+    private void setRight(int node, int child) {
+        chunk(node).putInt(offset(node) + RIGHT, child);
+    }
+
+    private int parent(int node) {
+        return chunk(node).getInt(offset(node) + PARENT);
+    }
+
+    private void setParent(int node, int parent) {
+        chunk(node).putInt(offset(node) + PARENT, parent);
+    }
+
+    //new nodes are always red
+    private int newNode(long key) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = left(node);
+        } else {
+            if (next == Integer.MAX_VALUE) {
+                throw new IllegalStateException("tree is full");
+            }
+            if ((next >>> CHUNK_SHIFT) == chunkCount) {
+                addChunk();
+            }
+            node = next++;
+        }
+        setKey(node, key);
+        setLeft(node, NIL);
+        setRight(node, NIL);
+        setParent(node, NIL);
+        chunk(node).put(offset(node) + COLOR, (byte) 1);
+        size++;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        setLeft(node, free);
+        free = node;
+        size--;
+    }
+
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        chunks[chunkCount++] = ByteBuffer.allocateDirect(CHUNK_NODES * NODE_BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    private void checkOpen() {
+        if (chunks == null) {
+            throw new IllegalStateException("tree is closed");
+        }
+    }
+
+    //MARK: - Helper Methods ------------------------------------------------------------------
+
+    // Right rotation
+    private void rightRotation(int y) {
+        int x = left(y);
+        setLeft(y, right(x));
+
+        if (right(x) != NIL) {
+            setParent(right(x), y);
+        }
+
+        setParent(x, parent(y));
+
+        if (parent(y) == NIL) {
+            root = x;
+        } else if (y == left(parent(y))) {
+            setLeft(parent(y), x);
+        } else {
+            setRight(parent(y), x);
+        }
+
+        setRight(x, y);
+        setParent(y, x);
+    }
+
+    private void leftRotation(int x) {
+        int y = right(x);
+        setRight(x, left(y));
+
+        if (left(y) != NIL) {
+            setParent(left(y), x);
+        }
+
+        setParent(y, parent(x));
+
+        if (parent(x) == NIL) {
+            root = y;
+        } else if (x == left(parent(x))) {
+            setLeft(parent(x), y);
+        } else {
+            setRight(parent(x), y);
+        }
+        setLeft(y, x);
+        setParent(x, y);
+    }
+
+    private boolean getColor(int node) {
+        return (node == NIL) ? BLACK : chunk(node).get(offset(node) + COLOR) != 0;
+    }
+
+    //Recolors the node and keeps redCount/blackCount in step
+    private void setColor(int node, boolean color) {
+        if (node != NIL && getColor(node) != color) {
+            chunk(node).put(offset(node) + COLOR, (byte) (color ? 1 : 0));
+            if (color == RED) {
+                redCount++;
+                blackCount--;
+            } else {
+                redCount--;
+                blackCount++;
+            }
+        }
+    }
+
+    private int minValueNode(int node) {
+        int curr = node;
+        while (left(curr) != NIL) {
+            curr = left(curr);
+        }
+        return curr;
+    }
+
+    private int height(int node) {
+        if (node == NIL) {
+            return -1;
+        }
+        return 1 + Math.max(height(left(node)), height(right(node)));
+    }
+
+    private void fixInsert(int node) {
+        int parent;
+        int grandParent;
+
+        while (node != root && getColor(node) == RED && getColor(parent(node)) == RED) {
+            parent = parent(node);
+            grandParent = parent(parent);
+
+            if (parent == left(grandParent)) {
+                int uncle = right(grandParent);
+
+                if (getColor(uncle) == RED) {
+                    setColor(grandParent, RED);
+                    setColor(parent, BLACK);
+                    setColor(uncle, BLACK);
+                    node = grandParent;
+                } else {
+                    if (node == right(parent)) {
+                        leftRotation(parent);
+                        node = parent;
+                        parent = parent(node);
+                    }
+
+                    rightRotation(grandParent);
+                    boolean tempColor = getColor(parent);
+                    setColor(parent, getColor(grandParent));
+                    setColor(grandParent, tempColor);
+                    node = parent;
+                }
+            } else { // Parent is right child of granparent
+                int uncle = left(grandParent);
+
+                if (getColor(uncle) == RED) {
+                    setColor(grandParent, RED);
+                    setColor(parent, BLACK);
+                    setColor(uncle, BLACK);
+                    node = grandParent;
+                } else {
+                    if (node == left(parent)) {
+                        rightRotation(parent);
+                        node = parent;
+                        parent = parent(node);
+                    }
+
+                    leftRotation(grandParent);
+                    boolean tempColor = getColor(parent);
+                    setColor(parent, getColor(grandParent));
+                    setColor(grandParent, tempColor);
+                    node = parent;
+                }
+            }
+        }
+        // root is always black, recoloring a red root adds one black node to every path
+        if (getColor(root) == RED) {
+            setColor(root, BLACK);
+            blackHeight++;
+        }
+    }
+
+    private int findNode(long item) {
+        int node = root;
+        while (node != NIL) {
+            long key = key(node);
+            if (item < key) {
+                node = left(node);
+            } else if (item > key) {
+                node = right(node);
+            } else {
+                return node;
+            }
+        }
+        return NIL;
+    }
+
+    private void printRedBlack(int node, StringBuilder sb) {
+        if (node != NIL) {
+            printRedBlack(left(node), sb);
+            sb.append("(").append(key(node)).append(",").append(getColor(node) ? "R" : "B").append(")");
+            printRedBlack(right(node), sb);
+        }
+    }
+
+    // Transplants one subtree for another
+    private void transplant(int u, int v) {
+        if (parent(u) == NIL) {
+            root = v;
+        } else if (u == left(parent(u))) {
+            setLeft(parent(u), v);
+        } else {
+            setRight(parent(u), v);
+        }
+        if (v != NIL) {
+            setParent(v, parent(u));
+        }
+    }
+
+    private void deleteNode(long item) {
+        // Find the node to delete
+        int z = findNode(item);
+
+        if (z == NIL) {
+            return; // Item not found
+        }
+
+        int y = z; // y is the node that will be removed or moved
+        boolean originalColor = getColor(y);
+        int x; // x is the node that will replace y
+        int xParent; // x can be NIL, so keep track of where it hangs
+
+        if (left(z) == NIL) {
+            x = right(z);
+            xParent = parent(z);
+            transplant(z, right(z));
+        } else if (right(z) == NIL) {
+            x = left(z);
+            xParent = parent(z);
+            transplant(z, left(z));
+        } else {
+            y = minValueNode(right(z));
+            originalColor = getColor(y);
+            x = right(y);
+
+            if (parent(y) == z) {
+                xParent = y;
+                if (x != NIL) {
+                    setParent(x, y);
+                }
+            } else {
+                xParent = parent(y);
+                transplant(y, right(y));
+                setRight(y, right(z));
+                if (right(y) != NIL) {
+                    setParent(right(y), y);
+                }
+            }
+
+            transplant(z, y);
+            setLeft(y, left(z));
+            if (left(y) != NIL) {
+                setParent(left(y), y);
+            }
+            chunk(y).put(offset(y) + COLOR, chunk(z).get(offset(z) + COLOR));
+        }
+        freeNode(z);
+
+        // One node of the original color of y left the tree
+        if (originalColor == RED) {
+            redCount--;
+        } else {
+            blackCount--;
+        }
+
+        // If the original color was BLACK, we need to fix the tree
+        if (originalColor == BLACK) {
+            fixDelete(x, xParent);
+        }
+    }
+
+    // x carries an extra black, parent is x's parent (x may be NIL)
+    private void fixDelete(int x, int parent) {
+        while (x != root && getColor(x) == BLACK) {
+            if (x == left(parent)) {
+                int w = right(parent);
+
+                // Case 1: x's sibling is red
+                if (getColor(w) == RED) {
+                    setColor(w, BLACK);
+                    setColor(parent, RED);
+                    leftRotation(parent);
+                    w = right(parent);
+                }
+
+                // Case 2: x's sibling has two black children
+                if (getColor(left(w)) == BLACK && getColor(right(w)) == BLACK) {
+                    setColor(w, RED);
+                    x = parent;
+                    parent = parent(x);
+                } else {
+                    // Case 3: x's sibling has a red left child and black right child
+                    if (getColor(right(w)) == BLACK) {
+                        setColor(left(w), BLACK);
+                        setColor(w, RED);
+                        rightRotation(w);
+                        w = right(parent);
+                    }
+
+                    // Case 4: x's sibling has a red right child
+                    setColor(w, getColor(parent));
+                    setColor(parent, BLACK);
+                    setColor(right(w), BLACK);
+                    leftRotation(parent);
+                    return; // the extra black is absorbed
+                }
+            } else {
+                int w = left(parent);
+
+                // Case 1: x's sibling is red
+                if (getColor(w) == RED) {
+                    setColor(w, BLACK);
+                    setColor(parent, RED);
+                    rightRotation(parent);
+                    w = left(parent);
+                }
+
+                // Case 2: x's sibling has two black children
+                if (getColor(right(w)) == BLACK && getColor(left(w)) == BLACK) {
+                    setColor(w, RED);
+                    x = parent;
+                    parent = parent(x);
+                } else {
+                    // Case 3: x's sibling has a red right child and black left child
+                    if (getColor(left(w)) == BLACK) {
+                        setColor(right(w), BLACK);
+                        setColor(w, RED);
+                        leftRotation(w);
+                        w = left(parent);
+                    }
+
+                    // Case 4: x's sibling has a red left child
+                    setColor(w, getColor(parent));
+                    setColor(parent, BLACK);
+                    setColor(left(w), BLACK);
+                    rightRotation(parent);
+                    return; // the extra black is absorbed
+                }
+            }
+        }
+
+        if (getColor(x) == RED) {
+            // a red x takes the extra black
+            setColor(x, BLACK);
+        } else {
+            // the extra black was pushed past the root, every path lost one black node
+            blackHeight--;
+        }
+    }
+
+    //MARK: - Tree Methods ------------------------------------------------------------------
+
+    public void insert(long item) {
+        checkOpen();
+        int parent = NIL;
+        int current = root;
+
+        while (current != NIL) {
+            parent = current;
+            long key = key(current);
+
+            if (item < key) {
+                current = left(current);
+            } else if (item > key) {
+                current = right(current);
+            } else {
+                return;
+            }
+        }
+
+        int newNode = newNode(item);
+        setParent(newNode, parent);
+        if (parent == NIL) {
+            root = newNode;
+        } else if (item < key(parent)) {
+            setLeft(parent, newNode);
+        } else {
+            setRight(parent, newNode);
+        }
+
+        // new nodes are red
+        redCount++;
+
+        // Fix Red-Black properties
+        fixInsert(newNode);
+    }
+
+    public boolean find(long item) {
+        checkOpen();
+        return findNode(item) != NIL;
+    }
+
+    public void delete(long item) {
+        checkOpen();
+        deleteNode(item);
+    }
+
+    public int height() {
+        checkOpen();
+        return height(root);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Off-heap bytes reserved for nodes (live, free and not yet used)
+    public long offHeapBytes() {
+        return (long) chunkCount * CHUNK_NODES * NODE_BYTES;
+    }
+
+    // Drops the node buffers. The native memory goes back once the buffers' cleaners run;
+    // there is no way to free a direct ByteBuffer on the spot in Java 17.
+    @Override
+    public void close() {
+        chunks = null;
+        chunkCount = 0;
+        next = 0;
+        free = NIL;
+        root = NIL;
+        size = 0;
+        blackHeight = 0;
+        redCount = 0;
+        blackCount = 0;
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    public void statusRB() {
+        System.out.println("R = " + redCount + " B = " + blackCount + " BH = " + blackHeight);
+    }
+
+    public void printRedBlack() {
+        checkOpen();
+        StringBuilder sb = new StringBuilder();
+        printRedBlack(root, sb);
+        System.out.print(sb.toString());
+    }
+}
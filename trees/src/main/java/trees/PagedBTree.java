@@ -0,0 +1,791 @@
+/*
+B-Tree for long keys that lives in a file of fixed size pages, Tree234's node design scaled up to one node per page
+Same top-down insert (split every full node on the way down) and delete (top up every node on the way down) as BTree.
+Every 4 KiB page is one node, 339 keys and 340 child page numbers:
+    count (int) | leaf (int) | keys (long x 339) | children (int x 340)
+Page 0 is the header (root page, page count, free list, size, height), so opening an existing file only reads it.
+Pages are read through a bounded LRU cache of cachePages pages; a dirty page is written back when it is evicted,
+flushed or the tree is closed. Freed pages (from merges) go on a free list and are reused.
+There is no crash safety: a file that was not flushed or closed may be left inconsistent.
+It is a BalanceTree<Long>, so it can go behind LatencyTree, DurableTree or ShardedTree. The long versions of
+insert, find and delete skip the boxing. size is capped at Integer.MAX_VALUE, longSize has the exact count.
+stats and range read their pages through the cache like everything else, and insertAll / findAll are the defaults.
+find is not read-only (it reorders the cache), so ConcurrentBalanceTree rejects it.
+ */
+
+package trees;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+public class PagedBTree implements BalanceTree<Long>, AutoCloseable {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    public static final int PAGE_SIZE = 4096;
+
+    //page number used for a missing page
+    private static final int NIL = -1;
+
+    //node page layout, MAX_KEYS is odd so a full node splits into two halves of MIN_KEYS - 1
+    private static final int COUNT = 0;
+    private static final int LEAF = 4;
+    private static final int KEYS = 8;
+    private static final int MAX_KEYS = 339;
+    private static final int CHILDREN = KEYS + 8 * MAX_KEYS;
+    private static final int MIN_KEYS = (MAX_KEYS + 1) / 2;
+    //free pages are chained through their first int
+    private static final int NEXT_FREE = 0;
+
+    //header page layout
+    private static final long MAGIC = 0x5041474542545245L;
+    private static final int H_MAGIC = 0;
+    private static final int H_PAGE_SIZE = 8;
+    private static final int H_ROOT = 12;
+    private static final int H_PAGES = 16;
+    private static final int H_FREE = 20;
+    private static final int H_SIZE = 24;
+    private static final int H_HEIGHT = 32;
+
+    //an operation holds at most a parent, a node and its sibling at once, so the cache must fit a few more
+    private static final int MIN_CACHE_PAGES = 8;
+
+    private final FileChannel channel;
+    private final int cachePages;
+    private final PageCache cache;
+
+    private int root;
+    private int pageCount;
+    private int free;
+    private long size;
+    private int height;
+
+    private long hits;
+    private long misses;
+    //buffer of the last evicted page, reused by the next miss instead of allocating a new one
+    private ByteBuffer spare;
+
+    //One cached page, data is a heap buffer so shifts can use System.arraycopy on its array
+    private static final class Page {
+        final int number;
+        final ByteBuffer data;
+        boolean dirty;
+
+        Page(int number, ByteBuffer data) {
+            this.number = number;
+            this.data = data;
+        }
+    }
+
+    //LRU in access order, the eldest page is written back (if dirty) and dropped once there are too many
+    private final class PageCache extends LinkedHashMap<Integer, Page> {
+        PageCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+            if (size() <= cachePages) {
+                return false;
+            }
+            writeBack(eldest.getValue());
+            spare = eldest.getValue().data;
+            return true;
+        }
+    }
+
+    //Constructor: opens file if it holds a tree, otherwise starts a new empty one in it
+    public PagedBTree(Path file, int cachePages) throws IOException {
+        if (cachePages < MIN_CACHE_PAGES) {
+            throw new IllegalArgumentException("cachePages must be at least " + MIN_CACHE_PAGES + ": " + cachePages);
+        }
+        this.cachePages = cachePages;
+        this.cache = new PageCache();
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            if (channel.size() == 0) {
+                pageCount = 1;
+                free = NIL;
+                size = 0;
+                height = 0;
+                root = allocate(true);
+                writeHeader();
+            } else {
+                readHeader();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    //MARK: - Page Storage ------------------------------------------------------------------
+
+    //The buffer of a page for reading, only valid until a few more pages have been fetched
+    private ByteBuffer read(int page) {
+        return fetch(page).data;
+    }
+
+    //Same, and marks the page dirty
+    private ByteBuffer write(int page) {
+        Page cached = fetch(page);
+        cached.dirty = true;
+        return cached.data;
+    }
+
+    private Page fetch(int page) {
+        Page cached = cache.get(page);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+
+        misses++;
+        cached = new Page(page, newBuffer());
+        try {
+            readFully(cached.data, (long) page * PAGE_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        cache.put(page, cached);
+        return cached;
+    }
+
+    private ByteBuffer newBuffer() {
+        ByteBuffer buffer = (spare != null) ? spare : ByteBuffer.allocate(PAGE_SIZE);
+        spare = null;
+        return buffer;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.clear();
+    }
+
+    private void writeBack(Page page) {
+        if (!page.dirty) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = page.data.duplicate();
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, (long) page.number * PAGE_SIZE + buffer.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        page.dirty = false;
+    }
+
+    //A fresh page from the free list, or a new one at the end of the file (never read from disk)
+    private int allocate(boolean leaf) {
+        int page;
+        Page cached;
+        if (free != NIL) {
+            page = free;
+            cached = fetch(page);
+            free = cached.data.getInt(NEXT_FREE);
+        } else {
+            page = pageCount++;
+            cached = new Page(page, newBuffer());
+            cache.put(page, cached);
+        }
+        cached.dirty = true;
+        cached.data.putInt(COUNT, 0);
+        cached.data.putInt(LEAF, leaf ? 1 : 0);
+        return page;
+    }
+
+    private void release(int page) {
+        write(page).putInt(NEXT_FREE, free);
+        free = page;
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(PAGE_SIZE);
+        readFully(header, 0);
+        if (header.getLong(H_MAGIC) != MAGIC || header.getInt(H_PAGE_SIZE) != PAGE_SIZE) {
+            throw new IOException("not a PagedBTree file, or written with another page size");
+        }
+        root = header.getInt(H_ROOT);
+        pageCount = header.getInt(H_PAGES);
+        free = header.getInt(H_FREE);
+        size = header.getLong(H_SIZE);
+        height = header.getInt(H_HEIGHT);
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(PAGE_SIZE);
+        header.putLong(H_MAGIC, MAGIC)
+                .putInt(H_PAGE_SIZE, PAGE_SIZE)
+                .putInt(H_ROOT, root)
+                .putInt(H_PAGES, pageCount)
+                .putInt(H_FREE, free)
+                .putLong(H_SIZE, size)
+                .putInt(H_HEIGHT, height);
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    //MARK: - Node Layout ------------------------------------------------------------------
+
+    private static int count(ByteBuffer node) {
+        return node.getInt(COUNT);
+    }
+
+    private static void setCount(ByteBuffer node, int count) {
+        node.putInt(COUNT, count);
+    }
+
+    private static boolean isLeaf(ByteBuffer node) {
+        return node.getInt(LEAF) != 0;
+    }
+
+    private static long key(ByteBuffer node, int i) {
+        return node.getLong(KEYS + 8 * i);
+    }
+
+    private static void setKey(ByteBuffer node, int i, long key) {
+        node.putLong(KEYS + 8 * i, key);
+    }
+
+    private static int child(ByteBuffer node, int i) {
+        return node.getInt(CHILDREN + 4 * i);
+    }
+
+    private static void setChild(ByteBuffer node, int i, int child) {
+        node.putInt(CHILDREN + 4 * i, child);
+    }
+
+    // Shifts keys[i..] right by one and puts key at i
+    private static void insertKey(ByteBuffer node, int i, long key) {
+        int count = count(node);
+        System.arraycopy(node.array(), KEYS + 8 * i, node.array(), KEYS + 8 * (i + 1), 8 * (count - i));
+        setKey(node, i, key);
+        setCount(node, count + 1);
+    }
+
+    // Removes keys[i] and shifts the rest left by one
+    private static void removeKey(ByteBuffer node, int i) {
+        int count = count(node) - 1;
+        System.arraycopy(node.array(), KEYS + 8 * (i + 1), node.array(), KEYS + 8 * i, 8 * (count - i));
+        setCount(node, count);
+    }
+
+    // Shifts children[i..] right by one and puts child at i, call before insertKey
+    private static void insertChild(ByteBuffer node, int i, int child) {
+        int count = count(node);
+        System.arraycopy(node.array(), CHILDREN + 4 * i, node.array(), CHILDREN + 4 * (i + 1), 4 * (count + 1 - i));
+        setChild(node, i, child);
+    }
+
+    // Removes children[i] and shifts the rest left by one, call after removeKey
+    private static void removeChild(ByteBuffer node, int i) {
+        int count = count(node);
+        System.arraycopy(node.array(), CHILDREN + 4 * (i + 1), node.array(), CHILDREN + 4 * i, 4 * (count + 1 - i));
+    }
+
+    // Index of item in the node's keys, or -(insertion point) - 1 if it is not there
+    private static int search(ByteBuffer node, long item) {
+        int low = 0;
+        int high = count(node) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long key = key(node, mid);
+            if (item > key)
+                low = mid + 1;
+            else if (item < key)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
+
+    //MARK: - Helper Methods ------------------------------------------------------------------
+
+    // Splits the full child in two around its middle key, which moves up into parent
+    private void splitChild(int parent, int childIndex) {
+        int child = child(read(parent), childIndex);
+        int newChild = allocate(isLeaf(read(child)));
+
+        ByteBuffer c = write(child);
+        ByteBuffer n = write(newChild);
+        int count = count(c);
+        int middle = count / 2;
+        int moved = count - middle - 1;
+
+        // Keys right of the middle move to the new node
+        System.arraycopy(c.array(), KEYS + 8 * (middle + 1), n.array(), KEYS, 8 * moved);
+        if (!isLeaf(c)) {
+            System.arraycopy(c.array(), CHILDREN + 4 * (middle + 1), n.array(), CHILDREN, 4 * (moved + 1));
+        }
+        setCount(n, moved);
+        long middleKey = key(c, middle);
+        setCount(c, middle);
+
+        ByteBuffer p = write(parent);
+        insertChild(p, childIndex + 1, newChild);
+        insertKey(p, childIndex, middleKey);
+    }
+
+    // Makes sure parent's child at nodeIndex has at least MIN_KEYS keys before we descend into it
+    // by borrowing from a sibling or merging with one. Returns the page to descend into.
+    private int topUp(int parent, int nodeIndex) {
+        ByteBuffer p = read(parent);
+        int node = child(p, nodeIndex);
+        int parentCount = count(p);
+
+        // Fine already
+        if (count(read(node)) >= MIN_KEYS) {
+            return node;
+        }
+
+        // Try to borrow from left sibling
+        if (nodeIndex > 0) {
+            int leftSibling = child(read(parent), nodeIndex - 1);
+
+            if (count(read(leftSibling)) >= MIN_KEYS) {
+                ByteBuffer s = write(leftSibling);
+                ByteBuffer n = write(node);
+                p = write(parent);
+
+                int last = count(s) - 1;
+                if (!isLeaf(s)) {
+                    insertChild(n, 0, child(s, last + 1));
+                }
+                insertKey(n, 0, key(p, nodeIndex - 1));
+
+                setKey(p, nodeIndex - 1, key(s, last));
+                removeKey(s, last);
+                return node;
+            }
+        }
+
+        // Try to borrow from right sibling
+        if (nodeIndex < parentCount) {
+            int rightSibling = child(read(parent), nodeIndex + 1);
+
+            if (count(read(rightSibling)) >= MIN_KEYS) {
+                ByteBuffer s = write(rightSibling);
+                ByteBuffer n = write(node);
+                p = write(parent);
+
+                if (!isLeaf(s)) {
+                    setChild(n, count(n) + 1, child(s, 0));
+                }
+                insertKey(n, count(n), key(p, nodeIndex));
+
+                setKey(p, nodeIndex, key(s, 0));
+                removeKey(s, 0);
+                if (!isLeaf(s)) {
+                    removeChild(s, 0);
+                }
+                return node;
+            }
+        }
+
+        if (nodeIndex > 0) {
+            // Merge with left sibling, node's keys end up in the left sibling
+            mergeNodes(parent, nodeIndex - 1);
+            return child(read(parent), nodeIndex - 1);
+        } else {
+            // Merge with right sibling
+            mergeNodes(parent, nodeIndex);
+            return node;
+        }
+    }
+
+    // Left child, the parent key between them and the right child become one node, the right page is freed
+    private void mergeNodes(int parent, int keyIndex) {
+        ByteBuffer p = read(parent);
+        int leftChild = child(p, keyIndex);
+        int rightChild = child(p, keyIndex + 1);
+        long separator = key(p, keyIndex);
+
+        ByteBuffer l = write(leftChild);
+        ByteBuffer r = read(rightChild);
+        int n = count(l);
+        int rightCount = count(r);
+        setKey(l, n, separator);
+
+        // Move all keys and children from right child to left child
+        System.arraycopy(r.array(), KEYS, l.array(), KEYS + 8 * (n + 1), 8 * rightCount);
+        if (!isLeaf(r)) {
+            System.arraycopy(r.array(), CHILDREN, l.array(), CHILDREN + 4 * (n + 1), 4 * (rightCount + 1));
+        }
+        setCount(l, n + 1 + rightCount);
+
+        p = write(parent);
+        removeKey(p, keyIndex);
+        removeChild(p, keyIndex + 1);
+        release(rightChild);
+    }
+
+    // Largest key in the subtree
+    private long maxKey(int node) {
+        ByteBuffer b = read(node);
+        while (!isLeaf(b)) {
+            b = read(child(b, count(b)));
+        }
+        return key(b, count(b) - 1);
+    }
+
+    // Smallest key in the subtree
+    private long minKey(int node) {
+        ByteBuffer b = read(node);
+        while (!isLeaf(b)) {
+            b = read(child(b, 0));
+        }
+        return key(b, 0);
+    }
+
+    private void stats(int node, int depth, TreeStats.Builder builder, int[] nodes) {
+        ByteBuffer b = read(node);
+        int count = count(b);
+        builder.node(depth, count);
+
+        if (isLeaf(b)) {
+            nodes[0]++;
+        } else {
+            nodes[1]++;
+            for (int i = 0; i <= count; i++) {
+                // the buffer may have been evicted by the children before, so read the page again
+                stats(child(read(node), i), depth + 1, builder, nodes);
+            }
+        }
+    }
+
+    //MARK: - Tree Methods ------------------------------------------------------------------
+
+    public void insert(long item) {
+        if (count(read(root)) == MAX_KEYS) {
+            // Split the full root under a new empty root, the middle key moves up
+            int newRoot = allocate(false);
+            setChild(write(newRoot), 0, root);
+            root = newRoot;
+            height++;
+            splitChild(newRoot, 0);
+        }
+
+        int node = root;
+        while (true) {
+            ByteBuffer b = read(node);
+            int i = search(b, item);
+            if (i >= 0) {
+                return;
+            }
+            i = -(i + 1);
+
+            if (isLeaf(b)) {
+                insertKey(write(node), i, item);
+                size++;
+                return;
+            }
+
+            int child = child(b, i);
+            if (count(read(child)) == MAX_KEYS) {
+                splitChild(node, i);
+
+                b = read(node);
+                long middle = key(b, i);
+                if (item == middle) {
+                    // the item was the middle key that moved up
+                    return;
+                }
+                child = child(b, item > middle ? i + 1 : i);
+            }
+            node = child;
+        }
+    }
+
+    public boolean find(long item) {
+        int node = root;
+        while (true) {
+            ByteBuffer b = read(node);
+            int i = search(b, item);
+            if (i >= 0) {
+                return true;
+            }
+            if (isLeaf(b)) {
+                return false;
+            }
+            node = child(b, -(i + 1));
+        }
+    }
+
+    // Top-down delete: every child we step into is made to hold at least MIN_KEYS keys first,
+    // so removing a key from a leaf never leaves it too small and nothing has to be fixed on the way back up
+    public void delete(long item) {
+        int node = root;
+        while (true) {
+            ByteBuffer b = read(node);
+            int i = search(b, item);
+
+            // Case 1: Item found in current node
+            if (i >= 0) {
+                if (isLeaf(b)) {
+                    removeKey(write(node), i);
+                    size--;
+                    break;
+                }
+
+                int leftChild = child(b, i);
+                int rightChild = child(b, i + 1);
+
+                if (count(read(leftChild)) >= MIN_KEYS) {
+                    // replace with the predecessor and delete it from the left subtree
+                    long predecessor = maxKey(leftChild);
+                    setKey(write(node), i, predecessor);
+                    item = predecessor;
+                    node = leftChild;
+                } else if (count(read(rightChild)) >= MIN_KEYS) {
+                    // replace with the successor and delete it from the right subtree
+                    long successor = minKey(rightChild);
+                    setKey(write(node), i, successor);
+                    item = successor;
+                    node = rightChild;
+                } else {
+                    // both children are minimal, pull the item down into a merged full node
+                    mergeNodes(node, i);
+                    node = leftChild;
+                }
+            }
+            // Case 2: Item not found in current node
+            else {
+                if (isLeaf(b)) {
+                    break;
+                }
+                node = topUp(node, -(i + 1));
+            }
+        }
+
+        ByteBuffer r = read(root);
+        if (count(r) == 0 && !isLeaf(r)) {
+            int oldRoot = root;
+            root = child(r, 0);
+            height--;
+            release(oldRoot);
+        }
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    //Write every dirty page and the header, and force them to the device
+    public void flush() throws IOException {
+        try {
+            for (Page page : cache.values()) {
+                writeBack(page);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writeHeader();
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            cache.clear();
+            spare = null;
+            channel.close();
+        }
+    }
+
+    //MARK: - Interface Methods ------------------------------------------------------------------
+
+    @Override
+    public void insert(Long item) {
+        insert(item.longValue());
+    }
+
+    @Override
+    public boolean find(Long item) {
+        return find(item.longValue());
+    }
+
+    @Override
+    public void delete(Long item) {
+        delete(item.longValue());
+    }
+
+    @Override
+    public TreeStats stats() {
+        TreeStats.Builder builder = new TreeStats.Builder();
+        int[] nodes = new int[2];
+        stats(root, 0, builder, nodes);
+        return builder.type("leaf", nodes[0])
+                .type("internal", nodes[1])
+                .build();
+    }
+
+    @Override
+    public Iterator<Long> range(Long from, boolean fromInclusive, Long to, boolean toInclusive, boolean descending) {
+        return new Cursor(new Bounds<>(from, fromInclusive, to, toInclusive), descending);
+    }
+
+    //MARK: - Cursor ------------------------------------------------------------------
+
+    //BTree's cursor over page numbers: a path stack of (page, key index) frames, one frame per level
+    //ascending: index is the next key to return in that page, descending: index - 1 is
+    //Pages are read again at every step, a buffer is only good until a few more pages have been fetched
+    private class Cursor implements Iterator<Long> {
+        private final Bounds<Long> bounds;
+        private final boolean descending;
+        private final int[] pages;
+        private final int[] index;
+        private int top;
+        private Long next;
+
+        Cursor(Bounds<Long> bounds, boolean descending) {
+            this.bounds = bounds;
+            this.descending = descending;
+
+            pages = new int[height + 1];
+            index = new int[height + 1];
+
+            // Push the path to the first key inside the start bound, binary searching each page for it
+            int page = root;
+            while (true) {
+                ByteBuffer b = read(page);
+                int i = descending ? lastBelowHigh(b) + 1 : firstAboveLow(b);
+                push(page, i);
+
+                if (isLeaf(b)) {
+                    break;
+                }
+                page = child(b, i);
+            }
+            advance();
+        }
+
+        // Index of the first key not below the lower bound, count if there is none
+        private int firstAboveLow(ByteBuffer node) {
+            int low = 0;
+            int high = count(node);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (bounds.aboveLow(key(node, mid)))
+                    high = mid;
+                else
+                    low = mid + 1;
+            }
+            return low;
+        }
+
+        // Index of the last key not above the upper bound, -1 if there is none
+        private int lastBelowHigh(ByteBuffer node) {
+            int low = 0;
+            int high = count(node);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (bounds.belowHigh(key(node, mid)))
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low - 1;
+        }
+
+        private void push(int page, int i) {
+            pages[top] = page;
+            index[top++] = i;
+        }
+
+        //Drop finished frames, then peek at the next key and stop once it is past the end bound
+        private void advance() {
+            next = null;
+            while (top > 0 && (descending ? index[top - 1] == 0 : index[top - 1] == count(read(pages[top - 1])))) {
+                top--;
+            }
+            if (top > 0) {
+                Long candidate = key(read(pages[top - 1]), descending ? index[top - 1] - 1 : index[top - 1]);
+                if (descending ? bounds.aboveLow(candidate) : bounds.belowHigh(candidate)) {
+                    next = candidate;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Long next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Long element = next;
+
+            // step past the key, then walk down the near edge of the subtree that follows it
+            ByteBuffer b = read(pages[top - 1]);
+            int i = descending ? --index[top - 1] : ++index[top - 1];
+            if (!isLeaf(b)) {
+                int child = child(b, i);
+                while (true) {
+                    ByteBuffer c = read(child);
+                    push(child, descending ? count(c) : 0);
+                    if (isLeaf(c)) {
+                        break;
+                    }
+                    child = child(c, descending ? count(c) : 0);
+                }
+            }
+            advance();
+            return element;
+        }
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    //Exact number of keys, size() stops at Integer.MAX_VALUE
+    public long longSize() {
+        return size;
+    }
+
+    public int pageCount() {
+        return pageCount;
+    }
+
+    public long cacheHits() {
+        return hits;
+    }
+
+    public long cacheMisses() {
+        return misses;
+    }
+
+    //Flush, then empty the cache, so the next lookups start cold
+    public void clearCache() throws IOException {
+        flush();
+        cache.clear();
+    }
+}
@@ -0,0 +1,302 @@
+/*
+Persistent AVL Tree using the BalanceTree interface: nodes are never changed once built
+An update copies only the nodes on the path from the root to the change (plus the few a rotation touches),
+O(log n) new nodes, and every other subtree is shared with the version before it.
+plus / minus: Return a new tree with the item added / removed, this one is left as it was
+snapshot: Returns a view of the current version in O(1), later updates to this tree don't show in it
+insert / delete: Swap in the new version with a compare-and-set, so readers never block and are never blocked
+A version no one references any more is garbage collected, nodes it shares with newer versions live on.
+ */
+
+package trees;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class PersistentAVL<E extends Comparable<E>> implements BalanceTree<E> {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    //AVL height is at most ~1.44 log2(n), so 64 levels covers any tree that fits in memory
+    private static final int MAX_DEPTH = 64;
+
+    //root of the current version
+    private final AtomicReference<Node<E>> root;
+
+    //Node Class for PersistentAVL, final all the way down so a published version can be read without locks
+    private static final class Node<E> {
+        final E element;
+        final Node<E> left;
+        final Node<E> right;
+        final int height;
+        //number of nodes in the subtree rooted here, including this one
+        final int count;
+
+        Node(E element, Node<E> left, Node<E> right) {
+            this.element = element;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.count = count(left) + count(right) + 1;
+        }
+    }
+
+    //Constructor for PersistentAVL class
+    public PersistentAVL() {
+        this((Node<E>) null);
+    }
+
+    private PersistentAVL(Node<E> root) {
+        this.root = new AtomicReference<>(root);
+    }
+
+    //MARK: - Helper Methods ------------------------------------------------------------------
+
+    private static int height(Node<?> node) {
+        return (node == null) ? -1 : node.height;
+    }
+
+    private static int count(Node<?> node) {
+        return (node == null) ? 0 : node.count;
+    }
+
+    private static int getBalance(Node<?> node) {
+        return (node == null) ? 0 : height(node.left) - height(node.right);
+    }
+
+    //Rotations build new nodes instead of relinking the old ones, which other versions may still use
+    private static <E> Node<E> rightRotate(E element, Node<E> x, Node<E> right) {
+        return new Node<>(x.element, x.left, new Node<>(element, x.right, right));
+    }
+
+    private static <E> Node<E> leftRotation(E element, Node<E> left, Node<E> y) {
+        return new Node<>(y.element, new Node<>(element, left, y.left), y.right);
+    }
+
+    //New node for element over left and right, rebalanced if the heights differ by 2
+    private static <E> Node<E> balance(E element, Node<E> left, Node<E> right) {
+        int diff = height(left) - height(right);
+        if (diff > 1) {
+            // Left Right Case: rotate the left child first
+            if (getBalance(left) < 0)
+                left = leftRotation(left.element, left.left, left.right);
+            return rightRotate(element, left, right);
+        }
+        if (diff < -1) {
+            // Right Left Case: rotate the right child first
+            if (getBalance(right) > 0)
+                right = rightRotate(right.element, right.left, right.right);
+            return leftRotation(element, left, right);
+        }
+        return new Node<>(element, left, right);
+    }
+
+    //Returns node itself when item is already there, so an unchanged tree costs no allocation
+    private static <E extends Comparable<E>> Node<E> insert(Node<E> node, E item) {
+        if (node == null)
+            return new Node<>(item, null, null);
+
+        int cmp = item.compareTo(node.element);
+        if (cmp < 0) {
+            Node<E> left = insert(node.left, item);
+            return (left == node.left) ? node : balance(node.element, left, node.right);
+        } else if (cmp > 0) {
+            Node<E> right = insert(node.right, item);
+            return (right == node.right) ? node : balance(node.element, node.left, right);
+        }
+        return node;
+    }
+
+    //Returns node itself when item is not there
+    private static <E extends Comparable<E>> Node<E> delete(Node<E> node, E item) {
+        if (node == null)
+            return null;
+
+        int cmp = item.compareTo(node.element);
+        if (cmp < 0) {
+            Node<E> left = delete(node.left, item);
+            return (left == node.left) ? node : balance(node.element, left, node.right);
+        } else if (cmp > 0) {
+            Node<E> right = delete(node.right, item);
+            return (right == node.right) ? node : balance(node.element, node.left, right);
+        }
+
+        // node with only one child or no child
+        if (node.left == null)
+            return node.right;
+        if (node.right == null)
+            return node.left;
+
+        // node with two children: the inorder successor takes its place
+        Node<E> successor = node.right;
+        while (successor.left != null)
+            successor = successor.left;
+        return balance(successor.element, node.left, deleteMin(node.right));
+    }
+
+    private static <E> Node<E> deleteMin(Node<E> node) {
+        if (node.left == null)
+            return node.right;
+        return balance(node.element, deleteMin(node.left), node.right);
+    }
+
+    private static <E extends Comparable<E>> boolean find(Node<E> node, E item) {
+        while (node != null) {
+            int cmp = item.compareTo(node.element);
+            if (cmp < 0)
+                node = node.left;
+            else if (cmp > 0)
+                node = node.right;
+            else
+                return true;
+        }
+        return false;
+    }
+
+    private static <E> void stats(Node<E> node, int depth, TreeStats.Builder builder, int[] balance) {
+        if (node != null) {
+            builder.node(depth, 1);
+            balance[1 - getBalance(node)]++;
+            stats(node.left, depth + 1, builder, balance);
+            stats(node.right, depth + 1, builder, balance);
+        }
+    }
+
+    //MARK: - Interface Methods ------------------------------------------------------------------
+
+    // Build the new version off the one we read, and start over if another writer got there first
+    @Override
+    public void insert(E item) {
+        while (true) {
+            Node<E> current = root.get();
+            Node<E> next = insert(current, item);
+            if (next == current || root.compareAndSet(current, next))
+                return;
+        }
+    }
+
+    @Override
+    public boolean find(E item) {
+        return find(root.get(), item);
+    }
+
+    @Override
+    public boolean findIsReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void delete(E item) {
+        while (true) {
+            Node<E> current = root.get();
+            Node<E> next = delete(current, item);
+            if (next == current || root.compareAndSet(current, next))
+                return;
+        }
+    }
+
+    @Override
+    public int height() {
+        return height(root.get());
+    }
+
+    @Override
+    public int size() {
+        return count(root.get());
+    }
+
+    @Override
+    public TreeStats stats() {
+        TreeStats.Builder builder = new TreeStats.Builder();
+        int[] balance = new int[3];
+        stats(root.get(), 0, builder, balance);
+        return builder.type("balance 1", balance[0])
+                .type("balance 0", balance[1])
+                .type("balance -1", balance[2])
+                .build();
+    }
+
+    // The cursor holds on to the version it started from, so it never sees a later update
+    @Override
+    public Iterator<E> range(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+        return new Cursor<>(root.get(), new Bounds<>(from, fromInclusive, to, toInclusive), descending);
+    }
+
+    //MARK: - Cursor ------------------------------------------------------------------
+
+    //In-order cursor: the stack holds the nodes whose element and far subtree are still to come
+    private static final class Cursor<E extends Comparable<E>> implements Iterator<E> {
+        private final Bounds<E> bounds;
+        private final boolean descending;
+        @SuppressWarnings("unchecked")
+        private final Node<E>[] stack = (Node<E>[]) new Node[MAX_DEPTH];
+        private int top;
+        private Node<E> next;
+
+        Cursor(Node<E> root, Bounds<E> bounds, boolean descending) {
+            this.bounds = bounds;
+            this.descending = descending;
+
+            // Push the path to the first element inside the start bound
+            Node<E> node = root;
+            while (node != null) {
+                if (descending ? bounds.belowHigh(node.element) : bounds.aboveLow(node.element)) {
+                    stack[top++] = node;
+                    node = descending ? node.right : node.left;
+                } else {
+                    node = descending ? node.left : node.right;
+                }
+            }
+            advance();
+        }
+
+        //Peek at the top of the stack and stop once it is past the end bound
+        private void advance() {
+            next = null;
+            if (top > 0) {
+                Node<E> candidate = stack[top - 1];
+                if (descending ? bounds.aboveLow(candidate.element) : bounds.belowHigh(candidate.element)) {
+                    next = candidate;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            E element = next.element;
+            top--;
+
+            // everything in the far subtree comes next, starting with its near spine
+            Node<E> node = descending ? next.left : next.right;
+            while (node != null) {
+                stack[top++] = node;
+                node = descending ? node.right : node.left;
+            }
+            advance();
+            return element;
+        }
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    public PersistentAVL<E> snapshot() {
+        return new PersistentAVL<>(root.get());
+    }
+
+    public PersistentAVL<E> plus(E item) {
+        return new PersistentAVL<>(insert(root.get(), item));
+    }
+
+    public PersistentAVL<E> minus(E item) {
+        return new PersistentAVL<>(delete(root.get(), item));
+    }
+}
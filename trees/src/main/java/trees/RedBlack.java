@@ -0,0 +1,777 @@
+/*
+Implementation of the Red-Black Tree using the BalanceTree interface
+Plus two additional Methods statusRB and printRedBlack
+statusRB: print the number of red nodes, black nodes and the black height.
+The node counts and the black height are maintained by insert and delete, so statusRB is O(1).
+printRedBlack: print the items and the node color in ascending order.
+buildFromSorted: Builds a tree from strictly ascending input in O(n), every level black except a red bottom level
+insertAll climbs the parent pointers from the previous key to the lowest subtree that can hold the next one,
+findAll splits the batch at each node, so the top of the tree is visited once per batch, not once per key.
+save / load: Write the tree to a compact binary snapshot (see SnapshotFile) with one color bit per node, and read it
+back through a memory map, rebuilding the same shape and colors in one pass with no comparisons or rotations.
+ */
+
+package trees;
+
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+public class RedBlack<E extends Comparable<E>> implements BalanceTree<E> {
+
+    //MARK: - Setup ------------------------------------------------------------------
+    private static final boolean RED = true;
+    private static final boolean BLACK = false;
+
+    //red-black height is at most 2 log2(n + 1), so 64 levels covers any tree that fits in memory
+    private static final int MAX_DEPTH = 64;
+
+    private Node<E> root;
+    private int blackHeight;
+    private int redCount;
+    private int blackCount;
+
+    //Node class for the RB tree
+    private static class Node<E> {
+        E element;
+        Node<E> left;
+        Node<E> right;
+        Node<E> parent;
+        boolean color;
+
+        public Node(E element) {
+            this.element = element;
+            this.left = null;
+            this.right = null;
+            this.parent = null;
+            this.color = RED; //new nodes are always red
+        }
+    }
+
+    //Constructor:
+    public RedBlack() {
+        root = null;
+        blackHeight = 0;
+        redCount = 0;
+        blackCount = 0;
+    }
+
+    //MARK: - Helper Methods ------------------------------------------------------------------
+
+    // Right rotation
+    private void rightRotation(Node<E> y) {
+        TreeMetrics.count(TreeMetrics.Event.ROTATION);
+        Node<E> x = y.left;
+        y.left = x.right;
+
+        if (x.right != null) {
+            x.right.parent = y;
+        }
+
+        x.parent = y.parent;
+
+        if (y.parent == null) {
+            root = x;
+        } else if (y == y.parent.left) {
+            y.parent.left = x;
+        } else {
+            y.parent.right = x;
+        }
+
+        x.right = y;
+        y.parent = x;
+    }
+
+    private void leftRotation(Node<E> x) {
+        TreeMetrics.count(TreeMetrics.Event.ROTATION);
+        Node<E> y = x.right;
+        x.right = y.left;
+
+        if (y.left != null) {
+            y.left.parent = x;
+        }
+
+        y.parent = x.parent;
+
+        if (x.parent == null) {
+            root = y;
+        } else if (x == x.parent.left) {
+            x.parent.left = y;
+        } else {
+            x.parent.right = y;
+        }
+        y.left = x;
+        x.parent = y;
+    }
+
+    private boolean getColor(Node<E> node) {
+        return (node == null) ? BLACK : node.color;
+    }
+
+    //Recolors the node and keeps redCount/blackCount in step
+    private void setColor(Node<E> node, boolean color) {
+        if (node != null && node.color != color) {
+            TreeMetrics.count(TreeMetrics.Event.RECOLOR);
+            node.color = color;
+            if (color == RED) {
+                redCount++;
+                blackCount--;
+            } else {
+                redCount--;
+                blackCount++;
+            }
+        }
+    }
+
+    private Node<E> minValueNode(Node<E> node) {
+        Node<E> curr = node;
+        while(curr.left != null) {
+            curr = curr.left;
+        }
+        return curr;
+    }
+
+    private Node<E> maxValueNode(Node<E> node) {
+        Node<E> curr = node;
+        while(curr.right != null) {
+            curr = curr.right;
+        }
+        return curr;
+    }
+
+    // Next node in order, climbing parent pointers when there is no right subtree
+    private Node<E> successor(Node<E> node) {
+        if (node.right != null) {
+            return minValueNode(node.right);
+        }
+        Node<E> parent = node.parent;
+        while (parent != null && node == parent.right) {
+            node = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    // Previous node in order
+    private Node<E> predecessor(Node<E> node) {
+        if (node.left != null) {
+            return maxValueNode(node.left);
+        }
+        Node<E> parent = node.parent;
+        while (parent != null && node == parent.left) {
+            node = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    private int height(Node<E> node) {
+        if (node == null) {
+            return -1;
+        }
+        return 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    private void fixInsert(Node<E> node) {
+        Node<E> parent = null;
+        Node<E> grandParent = null;
+
+        while (node != root && getColor(node) == RED && getColor(node.parent) == RED) {
+            parent = node.parent;
+            grandParent = parent.parent;
+
+            if (parent == grandParent.left) {
+                Node<E> uncle = grandParent.right;
+
+                if (getColor(uncle) == RED) {
+                    setColor(grandParent, RED);
+                    setColor(parent, BLACK);
+                    setColor(uncle, BLACK);
+                    node = grandParent;
+                } else {
+                    if (node == parent.right) {
+                        leftRotation(parent);
+                        node = parent;
+                        parent = node.parent;
+                    }
+
+                    rightRotation(grandParent);
+                    boolean tempColor = getColor(parent);
+                    setColor(parent, getColor(grandParent));
+                    setColor(grandParent, tempColor);
+                    node = parent;
+                }
+            } else { // Parent is right child of granparent
+                Node<E> uncle = grandParent.left;
+
+                if (getColor(uncle) == RED) {
+                    setColor(grandParent, RED);
+                    setColor(parent, BLACK);
+                    setColor(uncle, BLACK);
+                    node = grandParent;
+                } else {
+                    if (node == parent.left) {
+                        rightRotation(parent);
+                        node = parent;
+                        parent = node.parent;
+                    }
+
+                    leftRotation(grandParent);
+                    boolean tempColor = getColor(parent);
+                    setColor(parent, getColor(grandParent));
+                    setColor(grandParent, tempColor);
+                    node = parent;
+                }
+            }
+        }
+        // root is always black, recoloring a red root adds one black node to every path
+        if (getColor(root) == RED) {
+            setColor(root, BLACK);
+            blackHeight++;
+        }
+    }
+
+    //Depth of the bottom level of a tree built from size elements, which is the one that may be partly filled
+    //all levels above it are full, so coloring only it red keeps every path's black count equal
+    private static int redLevel(int size) {
+        int level = 0;
+        for (int m = size - 1; m >= 0; m = m / 2 - 1) {
+            level++;
+        }
+        return level;
+    }
+
+    //Build a subtree of the next size elements of input, middle element at the root
+    private Node<E> build(SortedInput<E> input, int size, int level, int redLevel) {
+        if (size == 0) {
+            return null;
+        }
+
+        int leftSize = (size - 1) / 2;
+        Node<E> left = build(input, leftSize, level + 1, redLevel);
+        Node<E> node = new Node<>(input.next());
+        node.right = build(input, size - 1 - leftSize, level + 1, redLevel);
+
+        node.left = left;
+        if (node.left != null) {
+            node.left.parent = node;
+        }
+        if (node.right != null) {
+            node.right.parent = node;
+        }
+
+        if (level == redLevel) {
+            redCount++;
+        } else {
+            node.color = BLACK;
+            blackCount++;
+        }
+        return node;
+    }
+
+    //Preorder: flags (children and color), key, then the left and right subtrees
+    private static <E> void save(Node<E> node, DataOutput out, KeyCodec<E> codec) throws IOException {
+        out.writeByte((node.left != null ? SnapshotFile.HAS_LEFT : 0) | (node.right != null ? SnapshotFile.HAS_RIGHT : 0)
+                | (node.color == RED ? SnapshotFile.RED : 0));
+        codec.write(node.element, out);
+        if (node.left != null) {
+            save(node.left, out, codec);
+        }
+        if (node.right != null) {
+            save(node.right, out, codec);
+        }
+    }
+
+    //Inverse of save, depth is checked so a corrupt file can't recurse without end
+    private Node<E> load(ByteBuffer in, KeyCodec<E> codec, int depth) throws IOException {
+        if (depth == MAX_DEPTH) {
+            throw new IOException("snapshot is corrupt: tree deeper than " + MAX_DEPTH);
+        }
+
+        int flags = in.get();
+        Node<E> node = new Node<>(codec.read(in));
+        if ((flags & SnapshotFile.HAS_LEFT) != 0) {
+            node.left = load(in, codec, depth + 1);
+            node.left.parent = node;
+        }
+        if ((flags & SnapshotFile.HAS_RIGHT) != 0) {
+            node.right = load(in, codec, depth + 1);
+            node.right.parent = node;
+        }
+
+        if ((flags & SnapshotFile.RED) != 0) {
+            redCount++;
+        } else {
+            node.color = BLACK;
+            blackCount++;
+        }
+        return node;
+    }
+
+    //Never more than MAX_DEPTH steps, so an optimistic reader racing a writer (see ConcurrentBalanceTree)
+    //cannot loop on a half-done rotation
+    private boolean find(Node<E> node, E item) {
+        for (int depth = 0; node != null && depth < MAX_DEPTH; depth++) {
+            int cmp = TreeMetrics.compare(item, node.element);
+
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                node = node.right;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void stats(Node<E> node, int depth, TreeStats.Builder builder) {
+        if (node != null) {
+            builder.node(depth, 1);
+            stats(node.left, depth + 1, builder);
+            stats(node.right, depth + 1, builder);
+        }
+    }
+
+    private void printRedBlack(Node<E> node, StringBuilder sb) {
+        if(node != null) {
+            printRedBlack(node.left, sb);
+            sb.append("(").append(node.element).append(",").append(getColor(node) ? "R" : "B").append(")");
+            printRedBlack(node.right, sb);
+        }
+    }
+
+    //MARK: - Interface Methods ------------------------------------------------------------------
+
+    @Override
+    public void insert(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.INSERT);
+        insert(root, item);
+    }
+
+    //Insert item below start, which must be root or a subtree whose key range holds item
+    //returns the node holding item, new or already there
+    private Node<E> insert(Node<E> start, E item) {
+        Node<E> newNode;
+
+        if (root == null) {
+            newNode = new Node<>(item);
+            root = newNode;
+        } else {
+            Node<E> current = start;
+            Node<E> parent = null;
+            int cmp = 0;
+
+            while (current != null) {
+                parent = current;
+                cmp = TreeMetrics.compare(item, current.element);
+
+                if (cmp < 0) {
+                    current = current.left;
+                } else if (cmp > 0) {
+                    current = current.right;
+                } else {
+                    return current;
+                }
+            }
+            newNode = new Node<>(item);
+            newNode.parent = parent;
+
+            if (cmp < 0) {
+                parent.left = newNode;
+            } else {
+                parent.right = newNode;
+            }
+        }
+
+        // new nodes are red
+        redCount++;
+
+        // Fix Red-Black properties
+        fixInsert(newNode);
+        return newNode;
+    }
+
+    @Override
+    public void insertAll(E[] sorted) {
+        TreeMetrics.operations(TreeMetrics.Operation.INSERT, sorted.length);
+        SortedInput.checkBatch(sorted);
+
+        Node<E> last = null;
+        for (E item : sorted) {
+            // Finger search: climb from the previous key while item is past the subtree's upper bound,
+            // which is the parent's element whenever we climb out of a left child
+            Node<E> start = last;
+            while (start != null && start.parent != null) {
+                Node<E> parent = start.parent;
+                if (start == parent.left && TreeMetrics.compare(item, parent.element) < 0) {
+                    break;
+                }
+                start = parent;
+            }
+            last = insert(start == null ? root : start, item);
+        }
+    }
+
+    //Set bit i of found for every batch[i] (from <= i < to) in the subtree of node
+    //the node's element splits the batch, each half only goes down one side
+    private void findAll(Node<E> node, E[] batch, int from, int to, BitSet found) {
+        while (node != null && from < to) {
+            int i = SortedInput.search(batch, from, to, node.element);
+            int split = (i >= 0) ? i : -i - 1;
+            if (i >= 0) {
+                found.set(i);
+            }
+
+            // recurse into the smaller half, loop on the larger one
+            int rightFrom = (i >= 0) ? split + 1 : split;
+            if (split - from < to - rightFrom) {
+                findAll(node.left, batch, from, split, found);
+                node = node.right;
+                from = rightFrom;
+            } else {
+                findAll(node.right, batch, rightFrom, to, found);
+                node = node.left;
+                to = split;
+            }
+        }
+    }
+
+    @Override
+    public BitSet findAll(E[] sorted) {
+        TreeMetrics.operations(TreeMetrics.Operation.FIND, sorted.length);
+        SortedInput.checkBatch(sorted);
+        BitSet found = new BitSet(sorted.length);
+        findAll(root, sorted, 0, sorted.length, found);
+        return found;
+    }
+
+    @Override
+    public boolean find(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.FIND);
+        return find(root, item);
+    }
+
+    @Override
+    public boolean findIsReadOnly() {
+        return true;
+    }
+
+    // Transplants one subtree for another
+    private void transplant(Node<E> u, Node<E> v) {
+        if (u.parent == null) {
+            root = v;
+        } else if (u == u.parent.left) {
+            u.parent.left = v;
+        } else {
+            u.parent.right = v;
+        }
+        if (v != null) {
+            v.parent = u.parent;
+        }
+    }
+
+    @Override
+    public void delete(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.DELETE);
+        deleteNode(item);
+    }
+
+    private void deleteNode(E item) {
+        // Find the node to delete
+        Node<E> z = root;
+        while (z != null) {
+            int cmp = TreeMetrics.compare(item, z.element);
+            if (cmp < 0) {
+                z = z.left;
+            } else if (cmp > 0) {
+                z = z.right;
+            } else {
+                break; // Found the node
+            }
+        }
+
+        if (z == null) {
+            return; // Item not found
+        }
+
+        Node<E> y = z; // y is the node that will be removed or movedd
+        boolean originalColor = y.color;
+        Node<E> x; // x is the node that will replace y
+        Node<E> xParent; // x can be null, so keep track of where it hangs
+
+        if (z.left == null) {
+            x = z.right;
+            xParent = z.parent;
+            transplant(z, z.right);
+        } else if (z.right == null) {
+            x = z.left;
+            xParent = z.parent;
+            transplant(z, z.left);
+        } else {
+            y = minValueNode(z.right);
+            originalColor = y.color;
+            x = y.right;
+
+            if (y.parent == z) {
+                xParent = y;
+                if (x != null) {
+                    x.parent = y;
+                }
+            } else {
+                xParent = y.parent;
+                transplant(y, y.right);
+                y.right = z.right;
+                if (y.right != null) {
+                    y.right.parent = y;
+                }
+            }
+
+            transplant(z, y);
+            y.left = z.left;
+            if (y.left != null) {
+                y.left.parent = y;
+            }
+            y.color = z.color;
+        }
+
+        // One node of the original color of y left the tree
+        if (originalColor == RED) {
+            redCount--;
+        } else {
+            blackCount--;
+        }
+
+        // If the original coloer was BLACK, we need to fix the tree
+        if (originalColor == BLACK) {
+            fixDelete(x, xParent);
+        }
+    }
+
+    // x carries an extra black, parent is x's parent (x may be null)
+    private void fixDelete(Node<E> x, Node<E> parent) {
+        while (x != root && getColor(x) == BLACK) {
+            if (x == parent.left) {
+                Node<E> w = parent.right;
+
+                // Case 1: x's sibling is red
+                if (getColor(w) == RED) {
+                    setColor(w, BLACK);
+                    setColor(parent, RED);
+                    leftRotation(parent);
+                    w = parent.right;
+                }
+
+                // Case 2: x's sibling has two black children
+                if (getColor(w.left) == BLACK && getColor(w.right) == BLACK) {
+                    setColor(w, RED);
+                    x = parent;
+                    parent = x.parent;
+                } else {
+                    // Case 3: x's sibling has a red left child and black right child
+                    if (getColor(w.right) == BLACK) {
+                        setColor(w.left, BLACK);
+                        setColor(w, RED);
+                        rightRotation(w);
+                        w = parent.right;
+                    }
+
+                    // Case 4: x's sibling has a red right child
+                    setColor(w, getColor(parent));
+                    setColor(parent, BLACK);
+                    setColor(w.right, BLACK);
+                    leftRotation(parent);
+                    return; // the extra black is absorbed
+                }
+            } else {
+                Node<E> w = parent.left;
+
+                // Case 1: x's sibling is red
+                if (getColor(w) == RED) {
+                    setColor(w, BLACK);
+                    setColor(parent, RED);
+                    rightRotation(parent);
+                    w = parent.left;
+                }
+
+                // Case 2: x's sibling has two black children
+                if (getColor(w.right) == BLACK && getColor(w.left) == BLACK) {
+                    setColor(w, RED);
+                    x = parent;
+                    parent = x.parent;
+                } else {
+                    // Case 3: x's sibling has a red right child and black left child
+                    if (getColor(w.left) == BLACK) {
+                        setColor(w.right, BLACK);
+                        setColor(w, RED);
+                        leftRotation(w);
+                        w = parent.left;
+                    }
+
+                    // Case 4: x's sibling has a red left child
+                    setColor(w, getColor(parent));
+                    setColor(parent, BLACK);
+                    setColor(w.left, BLACK);
+                    rightRotation(parent);
+                    return; // the extra black is absorbed
+                }
+            }
+        }
+
+        if (getColor(x) == RED) {
+            // a red x takes the extra black
+            setColor(x, BLACK);
+        } else {
+            // the extra black was pushed past the root, every path lost one black node
+            blackHeight--;
+        }
+    }
+
+    @Override
+    public int height() {
+        return height(root);
+    }
+
+    @Override
+    public int size() {
+        return redCount + blackCount;
+    }
+
+    // colors come from the maintained counters, the walk is only needed for the depths
+    @Override
+    public TreeStats stats() {
+        TreeStats.Builder builder = new TreeStats.Builder();
+        stats(root, 0, builder);
+        return builder.type("red", redCount)
+                .type("black", blackCount)
+                .build();
+    }
+
+    @Override
+    public Iterator<E> range(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+        return new Cursor(new Bounds<>(from, fromInclusive, to, toInclusive), descending);
+    }
+
+    //MARK: - Cursor ------------------------------------------------------------------
+
+    //In-order cursor that steps with parent pointers, so it keeps no stack at all
+    private class Cursor implements Iterator<E> {
+        private final Bounds<E> bounds;
+        private final boolean descending;
+        private Node<E> next;
+
+        Cursor(Bounds<E> bounds, boolean descending) {
+            this.bounds = bounds;
+            this.descending = descending;
+
+            // First node inside the start bound
+            Node<E> node = root;
+            while (node != null) {
+                if (descending ? bounds.belowHigh(node.element) : bounds.aboveLow(node.element)) {
+                    next = node;
+                    node = descending ? node.right : node.left;
+                } else {
+                    node = descending ? node.left : node.right;
+                }
+            }
+            checkEnd();
+        }
+
+        //Stop once next is past the end bound
+        private void checkEnd() {
+            if (next != null && !(descending ? bounds.aboveLow(next.element) : bounds.belowHigh(next.element))) {
+                next = null;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            E element = next.element;
+            next = descending ? predecessor(next) : successor(next);
+            checkEnd();
+            return element;
+        }
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    //sorted must be strictly ascending, IllegalArgumentException otherwise
+    public static <E extends Comparable<E>> RedBlack<E> buildFromSorted(E[] sorted) {
+        return buildFromSorted(Arrays.asList(sorted).iterator(), sorted.length);
+    }
+
+    //Takes the first size elements of sorted
+    public static <E extends Comparable<E>> RedBlack<E> buildFromSorted(Iterator<? extends E> sorted, int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("negative size " + size);
+        }
+
+        RedBlack<E> tree = new RedBlack<>();
+        int redLevel = redLevel(size);
+        tree.root = tree.build(new SortedInput<>(sorted), size, 0, redLevel);
+        // every level above the red one is black
+        tree.blackHeight = (size == 0) ? 0 : redLevel;
+        return tree;
+    }
+
+    public static RedBlack<Integer> buildFromSorted(IntStream sorted) {
+        int[] keys = sorted.toArray();
+        return buildFromSorted(Arrays.stream(keys).iterator(), keys.length);
+    }
+
+    public void save(Path file, KeyCodec<E> codec) throws IOException {
+        try (DataOutputStream out = SnapshotFile.create(file, SnapshotFile.RED_BLACK, size())) {
+            if (root != null) {
+                save(root, out, codec);
+            }
+        }
+    }
+
+    public static <E extends Comparable<E>> RedBlack<E> load(Path file, KeyCodec<E> codec) throws IOException {
+        ByteBuffer in = SnapshotFile.map(file, SnapshotFile.RED_BLACK);
+        RedBlack<E> tree = new RedBlack<>();
+        try {
+            int size = in.getInt();
+            tree.root = (size == 0) ? null : tree.load(in, codec, 0);
+            if (tree.size() != size) {
+                throw new IOException("snapshot is corrupt: " + tree.size() + " nodes, header says " + size);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("snapshot is truncated: " + file, e);
+        }
+
+        // every path has the same number of black nodes, so count them down the left edge
+        for (Node<E> node = tree.root; node != null; node = node.left) {
+            if (node.color == BLACK) {
+                tree.blackHeight++;
+            }
+        }
+        return tree;
+    }
+
+    public void statusRB() {
+        System.out.println("R = " + redCount + " B = " + blackCount + " BH = " + blackHeight);
+    }
+
+    public void printRedBlack() {
+        StringBuilder sb = new StringBuilder();
+        printRedBlack(root, sb);
+        System.out.print(sb.toString());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,467 @@
+/*
+Thread-safe BalanceTree that splits the key space into ranges (shards), each one its own tree with its own lock
+Any of the trees can back the shards (AVL, RedBlack, Splay, Tree234), calls on different shards run in parallel.
+A shard is split into equal parts when it grows past maxShardSize, or in two at its median when it takes more
+than HOT_FACTOR times its fair share of the operations (up to maxHotShards shards). Shards are never merged back.
+height: The height of the tallest shard
+size, stats: Summed over the shards one at a time, so only exact when no writers are running
+range: Copies one shard's part of the range at a time under its lock, so the scan never holds a lock
+insertAll / findAll: The sorted batch is cut into one slice per shard and the slices run in parallel on the ForkJoinPool
+Plus one additional Method shardCount: Returns the number of shards
+ */
+
+package trees;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public class ShardedTree<E extends Comparable<E>> implements BalanceTree<E> {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    //a shard is hot if it gets more than HOT_FACTOR times its fair share of the operations
+    private static final double HOT_FACTOR = 1.5;
+    //operations between hot checks on a shard
+    private static final int HOT_CHECK_INTERVAL = 1 << 12;
+    //shards smaller than this are never split for being hot, there is nothing to gain
+    private static final int MIN_SPLIT_SIZE = 64;
+
+    private final Supplier<BalanceTree<E>> factory;
+    private final int maxShardSize;
+    private final int maxHotShards;
+    private final ForkJoinPool pool;
+
+    //sorted by lower bound, replaced (never changed in place) when a shard splits
+    private volatile Shard<E>[] shards;
+    //operations over all shards, the base for the hot check
+    private final LongAdder operations = new LongAdder();
+
+    //One key range [low, next shard's low), low is null for the first shard
+    private static final class Shard<E extends Comparable<E>> {
+        final E low;
+        final BalanceTree<E> tree;
+        final ReentrantLock lock = new ReentrantLock();
+        //set under lock once the shard has been split, whoever finds it set routes again
+        boolean retired;
+        //operations since the shard was created, and the global count at that time
+        long operations;
+        long nextHotCheck = HOT_CHECK_INTERVAL;
+        final long createdAt;
+
+        Shard(E low, BalanceTree<E> tree, long createdAt) {
+            this.low = low;
+            this.tree = tree;
+            this.createdAt = createdAt;
+        }
+    }
+
+    //Constructor: one shard to start with, splitting at 65536 keys and up to 4 hot shards per core
+    public ShardedTree(Supplier<BalanceTree<E>> factory) {
+        this(factory, 1 << 16, 4 * Runtime.getRuntime().availableProcessors(), ForkJoinPool.commonPool());
+    }
+
+    @SuppressWarnings("unchecked")
+    public ShardedTree(Supplier<BalanceTree<E>> factory, int maxShardSize, int maxHotShards, ForkJoinPool pool) {
+        if (maxShardSize < 2)
+            throw new IllegalArgumentException("maxShardSize must be at least 2: " + maxShardSize);
+        this.factory = factory;
+        this.maxShardSize = maxShardSize;
+        this.maxHotShards = maxHotShards;
+        this.pool = pool;
+        this.shards = (Shard<E>[]) new Shard[]{new Shard<>(null, factory.get(), 0)};
+    }
+
+    //MARK: - Helper Methods ------------------------------------------------------------------
+
+    //Index of the shard whose range holds item: the last one with low <= item
+    private static <E extends Comparable<E>> int route(Shard<E>[] shards, E item) {
+        return route(shards, item, true);
+    }
+
+    //Same, but with inclusive false the last shard with low < item, which holds the keys just below item
+    private static <E extends Comparable<E>> int route(Shard<E>[] shards, E item, boolean inclusive) {
+        int lo = 1;
+        int hi = shards.length - 1;
+        int found = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = shards[mid].low.compareTo(item);
+            if (cmp < 0 || (cmp == 0 && inclusive)) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    //Locks and returns the shard for item, routing again if it was split while we waited for the lock
+    private Shard<E> lockShard(E item) {
+        while (true) {
+            Shard<E>[] current = shards;
+            Shard<E> shard = current[route(current, item)];
+            shard.lock.lock();
+            if (!shard.retired)
+                return shard;
+            shard.lock.unlock();
+        }
+    }
+
+    //Count one operation on a locked shard, split it (and unlock it) if it has got too big or too hot
+    private void release(Shard<E> shard, int ops) {
+        try {
+            if (shard.retired)
+                return;
+            shard.operations += ops;
+            operations.add(ops);
+
+            int size = shard.tree.size();
+            if (size > maxShardSize) {
+                split(shard);
+            } else if (shard.operations >= shard.nextHotCheck) {
+                shard.nextHotCheck = shard.operations + HOT_CHECK_INTERVAL;
+                if (size >= MIN_SPLIT_SIZE && shards.length < maxHotShards && isHot(shard))
+                    split(shard);
+            }
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private boolean isHot(Shard<E> shard) {
+        long total = operations.sum() - shard.createdAt;
+        return (double) shard.operations * shards.length > HOT_FACTOR * total;
+    }
+
+    //Replace the locked shard with parts of equal size, enough of them that each is at most half full
+    @SuppressWarnings("unchecked")
+    private void split(Shard<E> shard) {
+        List<E> items = new ArrayList<>(shard.tree.size());
+        shard.tree.ascending().forEachRemaining(items::add);
+        if (items.size() < 2)
+            return;
+
+        int parts = Math.max(2, (int) Math.ceil(items.size() / (maxShardSize / 2.0)));
+        long now = operations.sum();
+        Shard<E>[] pieces = (Shard<E>[]) new Shard[parts];
+        for (int p = 0; p < parts; p++) {
+            int from = (int) ((long) items.size() * p / parts);
+            int to = (int) ((long) items.size() * (p + 1) / parts);
+            E[] slice = (E[]) items.subList(from, to).toArray(new Comparable[0]);
+            pieces[p] = new Shard<>(p == 0 ? shard.low : slice[0], factory.get(), now);
+            pieces[p].tree.insertAll(slice);
+        }
+
+        // publish the new directory before retiring the old shard, so anyone who finds it retired routes to the parts
+        synchronized (this) {
+            Shard<E>[] current = shards;
+            int index = indexOf(current, shard);
+            Shard<E>[] next = (Shard<E>[]) new Shard[current.length + parts - 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(pieces, 0, next, index, parts);
+            System.arraycopy(current, index + 1, next, index + parts, current.length - index - 1);
+            shards = next;
+        }
+        shard.retired = true;
+    }
+
+    private static <E extends Comparable<E>> int indexOf(Shard<E>[] shards, Shard<E> shard) {
+        for (int i = 0; i < shards.length; i++) {
+            if (shards[i] == shard)
+                return i;
+        }
+        throw new IllegalStateException("shard is not in the directory");
+    }
+
+    //Slice [from, to) of a sorted batch that falls into one shard, run on the pool
+    private final class BatchTask extends RecursiveAction {
+        private final E[] batch;
+        private final int from;
+        private final int to;
+        private final BitSet found;
+
+        BatchTask(E[] batch, int from, int to, BitSet found) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+            this.found = found;
+        }
+
+        @Override
+        protected void compute() {
+            Shard<E> shard = lockShard(batch[from]);
+            // the shard may have split since the batch was cut, then only the part that still fits goes in here
+            Shard<E>[] current = shards;
+            int index = indexOf(current, shard);
+            E high = (index + 1 < current.length) ? current[index + 1].low : null;
+            int end = from;
+            while (end < to && (high == null || batch[end].compareTo(high) < 0))
+                end++;
+
+            E[] slice = Arrays.copyOfRange(batch, from, end);
+            try {
+                if (found == null) {
+                    shard.tree.insertAll(slice);
+                } else {
+                    BitSet slot = shard.tree.findAll(slice);
+                    synchronized (found) {
+                        for (int i = slot.nextSetBit(0); i >= 0; i = slot.nextSetBit(i + 1))
+                            found.set(from + i);
+                    }
+                }
+            } finally {
+                release(shard, end - from);
+            }
+
+            if (end < to)
+                new BatchTask(batch, end, to, found).compute();
+        }
+    }
+
+    //Cut a sorted batch at the current shard boundaries and run the slices in parallel
+    private void runBatch(E[] sorted, BitSet found) {
+        SortedInput.checkBatch(sorted);
+        if (sorted.length == 0)
+            return;
+
+        Shard<E>[] current = shards;
+        List<BatchTask> tasks = new ArrayList<>();
+        int from = 0;
+        while (from < sorted.length) {
+            int index = route(current, sorted[from]);
+            E high = (index + 1 < current.length) ? current[index + 1].low : null;
+            int to = from + 1;
+            while (to < sorted.length && (high == null || sorted[to].compareTo(high) < 0))
+                to++;
+            tasks.add(new BatchTask(sorted, from, to, found));
+            from = to;
+        }
+
+        if (tasks.size() == 1)
+            tasks.get(0).compute();
+        else
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            });
+    }
+
+    //MARK: - Interface Methods ------------------------------------------------------------------
+
+    @Override
+    public void insert(E item) {
+        Shard<E> shard = lockShard(item);
+        try {
+            shard.tree.insert(item);
+        } finally {
+            release(shard, 1);
+        }
+    }
+
+    @Override
+    public boolean find(E item) {
+        Shard<E> shard = lockShard(item);
+        try {
+            return shard.tree.find(item);
+        } finally {
+            release(shard, 1);
+        }
+    }
+
+    // every find holds its shard's lock, whatever the shards' trees do on find
+    @Override
+    public boolean findIsReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void delete(E item) {
+        Shard<E> shard = lockShard(item);
+        try {
+            shard.tree.delete(item);
+        } finally {
+            release(shard, 1);
+        }
+    }
+
+    @Override
+    public int height() {
+        int height = -1;
+        for (Shard<E> shard : shards) {
+            shard.lock.lock();
+            try {
+                height = Math.max(height, shard.tree.height());
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return height;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Shard<E> shard : shards) {
+            shard.lock.lock();
+            try {
+                size += shard.tree.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    // Depths are within each shard, node types are summed over the shards
+    @Override
+    public TreeStats stats() {
+        TreeStats.Builder builder = new TreeStats.Builder();
+        Map<String, Integer> types = new LinkedHashMap<>();
+        for (Shard<E> shard : shards) {
+            TreeStats stats;
+            shard.lock.lock();
+            try {
+                stats = shard.tree.stats();
+            } finally {
+                shard.lock.unlock();
+            }
+
+            long[] depths = stats.depthDistribution();
+            for (int depth = 0; depth < depths.length; depth++)
+                builder.node(depth, (int) depths[depth]);
+            stats.nodeTypes().forEach((type, count) -> types.merge(type, count, Integer::sum));
+        }
+        types.forEach(builder::type);
+        return builder.build();
+    }
+
+    @Override
+    public Iterator<E> range(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+        return new Cursor(from, fromInclusive, to, toInclusive, descending);
+    }
+
+    @Override
+    public void insertAll(E[] sorted) {
+        runBatch(sorted, null);
+    }
+
+    @Override
+    public BitSet findAll(E[] sorted) {
+        BitSet found = new BitSet(sorted.length);
+        runBatch(sorted, found);
+        return found;
+    }
+
+    //MARK: - Cursor ------------------------------------------------------------------
+
+    //Walks the shards in order, copying one shard's part of the range at a time.
+    //The next shard is found by routing from the last element handed out, so splits in between are fine
+    private class Cursor implements Iterator<E> {
+        private final E from;
+        private final boolean fromInclusive;
+        private final E to;
+        private final boolean toInclusive;
+        private final boolean descending;
+
+        private List<E> buffer = Collections.emptyList();
+        private int position;
+        //shard to copy next: its low bound when descending, the bound it starts from when ascending
+        private E boundary;
+        private boolean boundaryInclusive;
+        private boolean exhausted;
+
+        Cursor(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+            this.from = from;
+            this.fromInclusive = fromInclusive;
+            this.to = to;
+            this.toInclusive = toInclusive;
+            this.descending = descending;
+            this.boundary = descending ? to : from;
+            this.boundaryInclusive = descending ? toInclusive : fromInclusive;
+            fill();
+        }
+
+        //Copy shards until one has something in the range, or the range is used up
+        private void fill() {
+            while (position == buffer.size() && !exhausted) {
+                Shard<E>[] current = shards;
+                int index = (boundary == null) ? (descending ? current.length - 1 : 0)
+                        : route(current, boundary, !descending || boundaryInclusive);
+                Shard<E> shard = current[index];
+                shard.lock.lock();
+                try {
+                    if (shard.retired)
+                        continue;
+
+                    // the part of [from, to] inside this shard, starting from where the last one stopped
+                    Shard<E>[] now = shards;
+                    int at = indexOf(now, shard);
+                    E high = (at + 1 < now.length) ? now[at + 1].low : null;
+                    List<E> items = new ArrayList<>();
+                    Iterator<E> cursor;
+                    if (descending) {
+                        // the shard's low bound cuts tighter than from, or this is the last shard to copy
+                        boolean last = shard.low == null || (from != null && shard.low.compareTo(from) <= 0);
+                        E low = last ? from : shard.low;
+                        boolean lowInclusive = last ? fromInclusive : true;
+                        cursor = shard.tree.range(low, lowInclusive, boundary, boundaryInclusive, true);
+                        exhausted = last;
+                        boundary = shard.low;
+                        boundaryInclusive = false;
+                    } else {
+                        int cmp = (high == null || to == null) ? -1 : high.compareTo(to);
+                        boolean last = high == null || cmp > 0 || (cmp == 0 && !toInclusive);
+                        E limit = (high == null || cmp >= 0) ? to : high;
+                        boolean limitInclusive = (high == null || cmp >= 0) ? toInclusive : false;
+                        cursor = shard.tree.range(boundary, boundaryInclusive, limit, limitInclusive, false);
+                        exhausted = last;
+                        boundary = high;
+                        boundaryInclusive = true;
+                    }
+                    cursor.forEachRemaining(items::add);
+                    buffer = items;
+                    position = 0;
+                } finally {
+                    release(shard, 1);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < buffer.size();
+        }
+
+        @Override
+        public E next() {
+            if (position == buffer.size())
+                throw new NoSuchElementException();
+            E element = buffer.get(position++);
+            if (position == buffer.size())
+                fill();
+            return element;
+        }
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    public int shardCount() {
+        return shards.length;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+File layout shared by AVL.save / load and RedBlack.save / load
+    magic (long) | tree kind (byte) | size (int) | nodes in preorder
+Each node is a flags byte (HAS_LEFT, HAS_RIGHT, RED) followed by its key in the KeyCodec's format.
+The preorder and the flags are enough to rebuild the exact same shape in one pass without comparing keys.
+A DurableTree checkpoint uses the same header, followed by just the keys in ascending order.
+ */
+
+package trees;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+final class SnapshotFile {
+
+    static final long MAGIC = 0x5452454553534e50L;
+    static final byte AVL = 1;
+    static final byte RED_BLACK = 2;
+    static final byte CHECKPOINT = 3;
+
+    static final int HAS_LEFT = 1;
+    static final int HAS_RIGHT = 2;
+    static final int RED = 4;
+
+    private SnapshotFile() {
+    }
+
+    //Opens file for writing (replacing it) and writes the header
+    static DataOutputStream create(Path file, byte kind, int size) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.writeLong(MAGIC);
+        out.writeByte(kind);
+        out.writeInt(size);
+        return out;
+    }
+
+    //Maps the whole file and checks the header, the buffer is left at the first node
+    //A single mapping is limited to 2 GiB, which is where the format stops too
+    static ByteBuffer map(Path file, byte kind) throws IOException {
+        MappedByteBuffer in;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("snapshot is larger than 2 GiB: " + file);
+            }
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (in.remaining() < 13 || in.getLong() != MAGIC) {
+            throw new IOException("not a tree snapshot: " + file);
+        }
+        if (in.get() != kind) {
+            throw new IOException("snapshot is of another tree type: " + file);
+        }
+        return in;
+    }
+}
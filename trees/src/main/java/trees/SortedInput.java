@@ -0,0 +1,65 @@
+/*
+Input of the buildFromSorted factories: hands out exactly size elements from an iterator
+and checks on the way that they are strictly ascending, the only comparisons a bulk load makes
+checkBatch does the same check for the batches of insertAll / findAll
+search is the binary search findAll splits a batch with, its comparisons are counted in TreeMetrics
+ */
+
+package trees;
+
+import java.util.Iterator;
+
+final class SortedInput<E extends Comparable<E>> {
+
+    private final Iterator<? extends E> elements;
+    private E previous;
+
+    SortedInput(Iterator<? extends E> elements) {
+        this.elements = elements;
+    }
+
+    //Throws IllegalArgumentException unless batch is strictly ascending and has no nulls
+    static <E extends Comparable<E>> void checkBatch(E[] batch) {
+        for (int i = 0; i < batch.length; i++) {
+            if (batch[i] == null) {
+                throw new IllegalArgumentException("null element");
+            }
+            if (i > 0 && batch[i - 1].compareTo(batch[i]) >= 0) {
+                throw new IllegalArgumentException("batch is not strictly ascending at " + batch[i]);
+            }
+        }
+    }
+
+    //Arrays.binarySearch over batch[from..to), but comparing through TreeMetrics.compare
+    //so a batch find shows the comparisons it makes: index of key, or -(insertion point) - 1
+    static <E extends Comparable<E>> int search(E[] batch, int from, int to, E key) {
+        int low = from;
+        int high = to - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = TreeMetrics.compare(key, batch[mid]);
+            if (cmp > 0)
+                low = mid + 1;
+            else if (cmp < 0)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
+
+    E next() {
+        if (!elements.hasNext()) {
+            throw new IllegalArgumentException("fewer elements than the given size");
+        }
+        E element = elements.next();
+        if (element == null) {
+            throw new IllegalArgumentException("null element");
+        }
+        if (previous != null && previous.compareTo(element) >= 0) {
+            throw new IllegalArgumentException("input is not strictly ascending at " + element);
+        }
+        previous = element;
+        return element;
+    }
+}
@@ -0,0 +1,458 @@
+/*
+Implementation of the Splay Tree using the BalanceTree interface
+Plus two additional Methods printRoot and printSplay
+printRoot: Prints the item contained in the root
+printSplay: Prints the item and the node height in the tree
+Splaying is top-down (Sleator and Tarjan): no recursion and one comparison per level,
+so even the O(n) deep paths left by sequential inserts can be splayed without running out of stack.
+ */
+
+package trees;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class Splay<E extends Comparable<E>> implements BalanceTree<E> {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    //root of the Splay
+    private Node<E> root;
+    private int size;
+
+    //holds the left and right trees while splaying, header.right is the left tree and header.left the right tree
+    private final Node<E> header = new Node<>(null);
+
+    //key compared to the root the last splay returned, so insert / find / delete don't compare it again
+    private int lastCmp;
+
+    //Node class for the Splay
+    private static class Node<E> {
+        E element;
+        Node<E> left;
+        Node<E> right;
+
+        public Node(E element) {
+            this.element = element;
+            this.left = null;
+            this.right = null;
+        }
+    }
+
+    //constructor for the SPlay
+    public Splay() {
+        root = null;
+        size = 0;
+    }
+
+    //MARK: - Helper Methods ------------------------------------------------------------------
+
+    // Right Rotation
+    private Node<E> rightRotation(Node<E> y) {
+        TreeMetrics.count(TreeMetrics.Event.ROTATION);
+        Node<E> x = y.left;
+        y.left = x.right;
+        x.right = y;
+        return x;
+    }
+
+    //Left Rotation
+    private Node<E> leftRotation(Node<E> x) {
+        TreeMetrics.count(TreeMetrics.Event.ROTATION);
+        Node<E> y = x.right;
+        x.right = y.left;
+        y.left = x;
+        return y;
+    }
+
+    //splay operation
+    //top-down: nodes smaller than key are hung off the left tree, larger ones off the right tree,
+    //then the last node reached becomes the root with the two trees as its children, and lastCmp holds key compared to it
+    private Node<E> splay(Node<E> root, E key) {
+        if (root == null) {
+            return null;
+        }
+
+        Node<E> leftTreeMax = header;
+        Node<E> rightTreeMin = header;
+        header.left = null;
+        header.right = null;
+
+        Node<E> t = root;
+        // cmp always holds key compared to t, so every node is compared once
+        int cmp = TreeMetrics.compare(key, t.element);
+
+        while (cmp != 0) {
+            if (cmp < 0) {
+                Node<E> y = t.left;
+                if (y == null) {
+                    break;
+                }
+                int cmpChild = TreeMetrics.compare(key, y.element);
+
+                if (cmpChild < 0) {
+                    // Zig-Zig (Left Left): rotate right, then link
+                    t = rightRotation(t);
+                    cmp = cmpChild;
+                    if (t.left == null) {
+                        break;
+                    }
+                    rightTreeMin.left = t;
+                    rightTreeMin = t;
+                    t = t.left;
+                    cmp = TreeMetrics.compare(key, t.element);
+                } else {
+                    // Zig / Zig-Zag: link t into the right tree and continue from y
+                    rightTreeMin.left = t;
+                    rightTreeMin = t;
+                    t = y;
+                    cmp = cmpChild;
+                }
+            } else {
+                Node<E> y = t.right;
+                if (y == null) {
+                    break;
+                }
+                int cmpChild = TreeMetrics.compare(key, y.element);
+
+                if (cmpChild > 0) {
+                    // Zag-Zag (Right Right): rotate left, then link
+                    t = leftRotation(t);
+                    cmp = cmpChild;
+                    if (t.right == null) {
+                        break;
+                    }
+                    leftTreeMax.right = t;
+                    leftTreeMax = t;
+                    t = t.right;
+                    cmp = TreeMetrics.compare(key, t.element);
+                } else {
+                    // Zag / Zag-Zig: link t into the left tree and continue from y
+                    leftTreeMax.right = t;
+                    leftTreeMax = t;
+                    t = y;
+                    cmp = cmpChild;
+                }
+            }
+        }
+
+        // Reassemble
+        leftTreeMax.right = t.left;
+        rightTreeMin.left = t.right;
+        t.left = header.right;
+        t.right = header.left;
+
+        header.left = null;
+        header.right = null;
+        lastCmp = cmp;
+        return t;
+    }
+
+    //Walks every node with an explicit stack (a splay tree can be O(n) deep) and returns the height
+    //when builder is not null each node's depth goes into it and children[0..2] counts leaves,
+    //nodes with one child and nodes with two children
+    @SuppressWarnings("unchecked")
+    private int walk(TreeStats.Builder builder, int[] children) {
+        if (root == null) {
+            return -1;
+        }
+
+        Node<E>[] stack = (Node<E>[]) new Node[64];
+        int[] depths = new int[64];
+        int top = 0;
+        int height = 0;
+
+        stack[top] = root;
+        depths[top++] = 0;
+        while (top > 0) {
+            Node<E> node = stack[--top];
+            int depth = depths[top];
+            height = Math.max(height, depth);
+
+            if (builder != null) {
+                builder.node(depth, 1);
+                children[(node.left == null ? 0 : 1) + (node.right == null ? 0 : 1)]++;
+            }
+
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+                depths = Arrays.copyOf(depths, depths.length * 2);
+            }
+            if (node.right != null) {
+                stack[top] = node.right;
+                depths[top++] = depth + 1;
+            }
+            if (node.left != null) {
+                stack[top] = node.left;
+                depths[top++] = depth + 1;
+            }
+        }
+        return height;
+    }
+
+    //Post-order pass that stores every node's height at its in-order position
+    //iterative with a growable stack like walk, each frame's state says which child it is waiting for
+    @SuppressWarnings("unchecked")
+    private int[] nodeHeights() {
+        int[] heights = new int[size];
+        if (root == null) {
+            return heights;
+        }
+
+        Node<E>[] stack = (Node<E>[]) new Node[64];
+        int[] states = new int[64];
+        int[] leftHeights = new int[64];
+        int[] positions = new int[64];
+        int top = 0;
+        int position = 0;
+        //height of the subtree finished last, -1 for a missing child
+        int returned = -1;
+
+        stack[top] = root;
+        states[top++] = 0;
+        while (top > 0) {
+            int frame = top - 1;
+            Node<E> node = stack[frame];
+            Node<E> child = null;
+
+            if (states[frame] == 0) {
+                // left subtree first
+                states[frame] = 1;
+                child = node.left;
+            } else if (states[frame] == 1) {
+                // left subtree done: this node's in-order position comes next, then the right subtree
+                leftHeights[frame] = returned;
+                positions[frame] = position++;
+                states[frame] = 2;
+                child = node.right;
+            } else {
+                returned = 1 + Math.max(leftHeights[frame], returned);
+                heights[positions[frame]] = returned;
+                top--;
+                continue;
+            }
+
+            if (child == null) {
+                returned = -1;
+            } else {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                    states = Arrays.copyOf(states, states.length * 2);
+                    leftHeights = Arrays.copyOf(leftHeights, leftHeights.length * 2);
+                    positions = Arrays.copyOf(positions, positions.length * 2);
+                }
+                stack[top] = child;
+                states[top++] = 0;
+            }
+        }
+        return heights;
+    }
+
+    //MARK: - Interface Methods ------------------------------------------------------------------
+
+    @Override
+    public void insert(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.INSERT);
+        // Tree is empty
+        if (root == null) {
+            root = new Node<>(item);
+            size++;
+            return;
+        }
+
+        root = splay(root, item);
+
+        int cmp = lastCmp;
+        if (cmp == 0) {
+            return;
+        }
+
+        Node<E> newNode = new Node<>(item);
+
+        if (cmp < 0) {
+            newNode.right = root;
+            newNode.left = root.left;
+            root.left = null;
+        }
+
+        else {
+            newNode.left = root;
+            newNode.right = root.right;
+            root.right = null;
+        }
+
+        root = newNode;
+        size++;
+    }
+
+    @Override
+    public boolean find(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.FIND);
+        if (root == null) {
+            return false;
+        }
+        root = splay(root, item);
+
+        return lastCmp == 0;
+    }
+
+    @Override
+    public void delete(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.DELETE);
+        if (root == null) {
+            return;
+        }
+
+        root = splay(root, item);
+
+        if (lastCmp != 0) {
+            return;
+        }
+
+        if (root.left == null) {
+            root = root.right;
+        }
+        else {
+            Node<E> temp = root.right;
+            root = root.left;
+            root = splay(root, item);
+            root.right = temp;
+        }
+        size--;
+    }
+
+    @Override
+    public int height() {
+        return walk(null, null);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public TreeStats stats() {
+        TreeStats.Builder builder = new TreeStats.Builder();
+        int[] children = new int[3];
+        walk(builder, children);
+        return builder.type("leaf", children[0])
+                .type("one child", children[1])
+                .type("two children", children[2])
+                .build();
+    }
+
+    // Scans don't splay, so they leave the tree as it is
+    @Override
+    public Iterator<E> range(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+        return new Cursor(new Bounds<>(from, fromInclusive, to, toInclusive), descending);
+    }
+
+    //MARK: - Cursor ------------------------------------------------------------------
+
+    //In-order cursor: the stack holds the nodes whose element and far subtree are still to come
+    //a splay tree can be O(n) deep, so the stack grows when it has to
+    private class Cursor implements Iterator<E> {
+        private final Bounds<E> bounds;
+        private final boolean descending;
+        @SuppressWarnings("unchecked")
+        private Node<E>[] stack = (Node<E>[]) new Node[64];
+        private int top;
+        private Node<E> next;
+
+        Cursor(Bounds<E> bounds, boolean descending) {
+            this.bounds = bounds;
+            this.descending = descending;
+
+            // Push the path to the first element inside the start bound
+            Node<E> node = root;
+            while (node != null) {
+                if (descending ? bounds.belowHigh(node.element) : bounds.aboveLow(node.element)) {
+                    push(node);
+                    node = descending ? node.right : node.left;
+                } else {
+                    node = descending ? node.left : node.right;
+                }
+            }
+            advance();
+        }
+
+        private void push(Node<E> node) {
+            if (top == stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[top++] = node;
+        }
+
+        //Peek at the top of the stack and stop once it is past the end bound
+        private void advance() {
+            next = null;
+            if (top > 0) {
+                Node<E> candidate = stack[top - 1];
+                if (descending ? bounds.aboveLow(candidate.element) : bounds.belowHigh(candidate.element)) {
+                    next = candidate;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            E element = next.element;
+            top--;
+
+            // everything in the far subtree comes next, starting with its near spine
+            Node<E> node = descending ? next.left : next.right;
+            while (node != null) {
+                push(node);
+                node = descending ? node.right : node.left;
+            }
+            advance();
+            return element;
+        }
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    public void printRoot() {
+        if (root != null) {
+            System.out.println("the root contains: " + root.element);
+        } else {
+            System.out.println("tree is empty");
+        }
+    }
+
+    //Two passes with explicit stacks, a splay tree can be O(n) deep
+    @SuppressWarnings("unchecked")
+    public void printSplay() {
+        int[] heights = nodeHeights();
+
+        // In-order: push the left spine, then take a node and push the left spine of its right subtree
+        StringBuilder sb = new StringBuilder();
+        Node<E>[] stack = (Node<E>[]) new Node[64];
+        int top = 0;
+        int position = 0;
+        Node<E> node = root;
+        while (node != null || top > 0) {
+            while (node != null) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = node;
+                node = node.left;
+            }
+            node = stack[--top];
+            sb.append("(").append(node.element).append(",").append(heights[position++]).append(")");
+            node = node.right;
+        }
+        System.out.print(sb.toString());
+    }
+}
@@ -0,0 +1,1135 @@
+package trees;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class Tests {
+
+    // Test Cases for AVL
+    static void testAVL() {
+        System.out.println("===== Testing AVL Tree =====");
+        AVL<Integer> avl = new AVL<>();
+
+        System.out.println("Test 1: Inserting elements 10, 5, 15, 3, 7, 12, 20");
+        avl.insert(10);
+        avl.insert(5);
+        avl.insert(15);
+        avl.insert(3);
+        avl.insert(7);
+        avl.insert(12);
+        avl.insert(20);
+
+        System.out.println("\nTest 2: Print the AVL tree structure");
+        System.out.print("AVL Tree (element, balance factor): ");
+        avl.printAVL();
+        System.out.println();
+
+        System.out.println("\nTest 3: Find operations");
+        System.out.println("Find 7: " + avl.find(7));
+        System.out.println("Find 9: " + avl.find(9));
+
+        System.out.println("\nTest 4: Get height of nodes");
+        System.out.print("Height of node 10: ");
+        avl.heightAVL(10);
+        System.out.print("Height of node 5: ");
+        avl.heightAVL(5);
+        System.out.print("Height of node 15: ");
+        avl.heightAVL(15);
+
+        System.out.println("\nTest 5: Tree height");
+        System.out.println("Tree height: " + avl.height());
+
+        System.out.println("\nTest 6: Delete operations");
+        System.out.println("Deleting 5...");
+        avl.delete(5);
+        System.out.print("AVL Tree after deletion: ");
+        avl.printAVL();
+        System.out.println();
+        System.out.println("Find 5: " + avl.find(5));
+
+        System.out.println("\nTest 7: Testing rotations");
+
+        // Create a new tree for rotation testing
+        AVL<Integer> rotationTest = new AVL<>();
+
+        System.out.println("Inserting elements to test rotations: 30, 20, 40, 10, 25, 35, 50, 5, 15");
+        rotationTest.insert(30);
+        rotationTest.insert(20);
+        rotationTest.insert(40);
+        rotationTest.insert(10);
+        rotationTest.insert(25);
+        rotationTest.insert(35);
+        rotationTest.insert(50);
+        rotationTest.insert(5);
+        rotationTest.insert(15);
+
+        System.out.print("Final AVL tree: ");
+        rotationTest.printAVL();
+        System.out.println();
+        System.out.println("Tree height: " + rotationTest.height());
+
+        System.out.println("\nTest 8: Delete root");
+        System.out.println("Deleting root node from original tree");
+        avl.delete(10);
+        System.out.print("AVL Tree after deleting root: ");
+        avl.printAVL();
+        System.out.println();
+        System.out.println("Tree height after deletion: " + avl.height());
+
+        System.out.println("\nTest 9: Order statistics on the rotation tree");
+        System.out.println("Size: " + rotationTest.size());
+        System.out.println("Rank of 25 (elements below it): " + rotationTest.rank(25));
+        System.out.println("Select 0 (smallest): " + rotationTest.select(0));
+        System.out.println("Select 4 (median): " + rotationTest.select(4));
+        System.out.println("Count in [10, 35): " + rotationTest.countRange(10, 35));
+
+        System.out.println("\nTest 10: Tree statistics");
+        System.out.println(avl.stats());
+
+        System.out.println("\nTest 11: Bulk load 1..15 from sorted input");
+        AVL<Integer> bulk = AVL.buildFromSorted(IntStream.rangeClosed(1, 15));
+        System.out.print("AVL Tree (element, balance factor): ");
+        bulk.printAVL();
+        System.out.println();
+        System.out.println("Tree height: " + bulk.height());
+
+        System.out.println("\nTest 12: Batch insert 16, 17, 18 and batch find 0, 8, 16, 17, 30");
+        bulk.insertAll(new Integer[]{16, 17, 18});
+        System.out.println("Found (batch positions): " + bulk.findAll(new Integer[]{0, 8, 16, 17, 30}));
+        System.out.println("Tree size: " + bulk.size() + " height: " + bulk.height());
+
+        System.out.println("\nTest 13: Set operations on 0, 2, ..., 98 and 0, 3, ..., 99, then split at 50");
+        AVL<Integer> union = AVL.union(AVL.buildFromSorted(IntStream.range(0, 50).map(i -> 2 * i)),
+                AVL.buildFromSorted(IntStream.range(0, 34).map(i -> 3 * i)));
+        AVL<Integer> both = AVL.intersection(AVL.buildFromSorted(IntStream.range(0, 50).map(i -> 2 * i)),
+                AVL.buildFromSorted(IntStream.range(0, 34).map(i -> 3 * i)));
+        AVL<Integer> evenOnly = AVL.difference(AVL.buildFromSorted(IntStream.range(0, 50).map(i -> 2 * i)),
+                AVL.buildFromSorted(IntStream.range(0, 34).map(i -> 3 * i)));
+        System.out.println("Union size: " + union.size() + ", intersection size: " + both.size()
+                + ", difference size: " + evenOnly.size() + " (should be 67, 17 and 33)");
+        AVL<Integer> upper = union.split(50);
+        System.out.println("Below 50: " + union.size() + " height " + union.height()
+                + ", from 50: " + upper.size() + " height " + upper.height());
+
+        System.out.println("\nTest 14: Save to a snapshot file and load it back");
+        try {
+            Path file = Files.createTempFile("avl", ".snapshot");
+            bulk.save(file, KeyCodec.INTEGER);
+            AVL<Integer> loaded = AVL.load(file, KeyCodec.INTEGER);
+            System.out.print("Loaded (element, balance factor): ");
+            loaded.printAVL();
+            System.out.println();
+            System.out.println("Size: " + loaded.size() + ", height: " + loaded.height() + ", file size: "
+                    + Files.size(file) + " bytes");
+            Files.delete(file);
+        } catch (IOException e) {
+            System.out.println("I/O error: " + e.getMessage());
+        }
+    }
+
+    // Test Cases for IntAVL
+    static void testIntAVL() {
+        System.out.println("===== Testing IntAVL Tree =====");
+        IntAVL avl = new IntAVL(4);
+
+        System.out.println("Test 1: Inserting elements 10, 5, 15, 3, 7, 12, 20 (starts with room for 4)");
+        avl.insert(10);
+        avl.insert(5);
+        avl.insert(15);
+        avl.insert(3);
+        avl.insert(7);
+        avl.insert(12);
+        avl.insert(20);
+
+        System.out.println("\nTest 2: Print the IntAVL tree structure");
+        System.out.print("IntAVL Tree (element, balance factor): ");
+        avl.printAVL();
+        System.out.println();
+
+        System.out.println("\nTest 3: Find operations");
+        System.out.println("Find 7: " + avl.find(7));
+        System.out.println("Find 9: " + avl.find(9));
+
+        System.out.println("\nTest 4: Tree height and size");
+        System.out.println("Tree height: " + avl.height());
+        System.out.println("Tree size: " + avl.size());
+
+        System.out.println("\nTest 5: Delete operations");
+        System.out.println("Deleting 5 and 10...");
+        avl.delete(5);
+        avl.delete(10);
+        System.out.print("IntAVL Tree after deletion: ");
+        avl.printAVL();
+        System.out.println();
+        System.out.println("Find 5: " + avl.find(5));
+
+        System.out.println("\nTest 6: Reusing deleted slots");
+        System.out.println("Inserting 1, 2 (go into the freed slots)");
+        avl.insert(1);
+        avl.insert(2);
+        System.out.print("IntAVL Tree after insertion: ");
+        avl.printAVL();
+        System.out.println();
+        System.out.println("Tree height: " + avl.height() + " size: " + avl.size());
+    }
+
+    static void testSplay() {
+        System.out.println("===== Testing Splay Tree =====");
+        Splay<Integer> splay = new Splay<>();
+
+        System.out.println("Test 1: Inserting elements 10, 20, 5, 30, 15, 25");
+        splay.insert(10);
+        System.out.print("Root after inserting 10: ");
+        splay.printRoot();
+
+        splay.insert(20);
+        System.out.print("Root after inserting 20: ");
+        splay.printRoot();
+
+        splay.insert(5);
+        System.out.print("Root after inserting 5: ");
+        splay.printRoot();
+
+        splay.insert(30);
+        System.out.print("Root after inserting 30: ");
+        splay.printRoot();
+
+        splay.insert(15);
+        System.out.print("Root after inserting 15: ");
+        splay.printRoot();
+
+        splay.insert(25);
+        System.out.print("Root after inserting 25: ");
+        splay.printRoot();
+
+        System.out.println("\nTest 2: Print the Splay tree structure");
+        System.out.print("Splay Tree (element, height): ");
+        splay.printSplay();
+        System.out.println();
+
+        System.out.println("\nTest 3: Find operations");
+        System.out.println("Find 15: " + splay.find(15));
+        System.out.print("Root after finding 15: ");
+        splay.printRoot();
+
+        System.out.println("Find 40: " + splay.find(40));  // Should be false
+        System.out.print("Root after finding 40 (should be closest value): ");
+        splay.printRoot();
+
+        System.out.println("\nTest 4: Tree height");
+        System.out.println("Tree height: " + splay.height());
+
+        System.out.println("\nTest 5: Delete operations");
+        System.out.println("Deleting 15...");
+        splay.delete(15);
+        System.out.print("Splay Tree after deletion: ");
+        splay.printSplay();
+        System.out.println();
+        System.out.print("Root after deleting 15: ");
+        splay.printRoot();
+
+        System.out.println("Find 15 after deletion: " + splay.find(15));
+
+        System.out.println("\nTest 6: Delete root");
+        System.out.print("Current root: ");
+        splay.printRoot();
+
+        System.out.println("Deleting root...");
+        splay.delete(10);
+        System.out.print("Root after deletion: ");
+        splay.printRoot();
+
+        System.out.println("\nTest 7: Final tree");
+        System.out.print("Final Splay Tree: ");
+        splay.printSplay();
+        System.out.println();
+        System.out.println("Final tree height: " + splay.height());
+
+        System.out.println("\nTest 8: Tree statistics");
+        System.out.println(splay.stats());
+    }
+
+    static void testSplaySequential() {
+        System.out.println("===== Testing Splay Tree with sequential keys =====");
+        Splay<Integer> splay = new Splay<>();
+
+        System.out.println("Test 1: Inserting 0 .. 9,999,999 in order (leaves a 10M deep path)");
+        for (int i = 0; i < 10_000_000; i++) {
+            splay.insert(i);
+        }
+        System.out.print("Root after inserting: ");
+        splay.printRoot();
+
+        System.out.println("\nTest 2: Find the smallest key (splays the whole path)");
+        System.out.println("Find 0: " + splay.find(0));
+        System.out.print("Root after finding 0: ");
+        splay.printRoot();
+
+        System.out.println("\nTest 3: Delete the smallest and largest key");
+        splay.delete(0);
+        splay.delete(9_999_999);
+        System.out.println("Find 0: " + splay.find(0) + " Find 9999999: " + splay.find(9_999_999));
+
+        System.out.println("\nTest 4: printSplay on a 200,000 deep path (captured, only the ends are shown)");
+        Splay<Integer> deep = new Splay<>();
+        for (int i = 0; i < 200_000; i++) {
+            deep.insert(i);
+        }
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(captured, true));
+        try {
+            deep.printSplay();
+        } finally {
+            System.setOut(out);
+        }
+        String printed = captured.toString();
+        System.out.println("Height: " + deep.height() + ", entries printed: " + printed.chars().filter(c -> c == '(').count()
+                + ", first: " + printed.substring(0, printed.indexOf(')') + 1)
+                + ", last: " + printed.substring(printed.lastIndexOf('(')) + " (should be 199999, 200000, (0,0) and (199999,199999))");
+    }
+
+    static void testRedBlack() {
+        System.out.println("===== Testing Red-Black Tree =====");
+        RedBlack<Integer> rb = new RedBlack<>();
+
+        System.out.println("Test 1: Inserting elements 10, 20, 30, 15, 25, 5, 1, 7");
+        rb.insert(10);
+        rb.insert(20);
+        rb.insert(30);
+        rb.insert(15);
+        rb.insert(25);
+        rb.insert(5);
+        rb.insert(1);
+        rb.insert(7);
+
+        System.out.println("\nTest 2: Print the Red-Black tree structure");
+        System.out.print("Red-Black Tree (element, color): ");
+        rb.printRedBlack();
+        System.out.println();
+
+        System.out.println("\nTest 3: Get status of Red-Black tree");
+        rb.statusRB();
+
+        System.out.println("\nTest 4: Find operations");
+        System.out.println("Find 15: " + rb.find(15));  // Should be true
+        System.out.println("Find 40: " + rb.find(40));  // Should be false
+
+        System.out.println("\nTest 5: Tree height");
+        System.out.println("Tree height: " + rb.height());
+
+        System.out.println("\nTest 6: Delete operations");
+        System.out.println("Deleting 15...");
+        rb.delete(15);
+        System.out.print("Red-Black Tree after deletion: ");
+        rb.printRedBlack();
+        System.out.println();
+        System.out.println("Find 15 after deletion: " + rb.find(15));  // Should be false
+
+        System.out.println("\nTest 7: Updated status after deletion");
+        rb.statusRB();
+
+        System.out.println("\nTest 8: Delete important node");
+        System.out.println("Deleting 10...");
+        rb.delete(10);
+        System.out.print("Red-Black Tree after deleting 10: ");
+        rb.printRedBlack();
+        System.out.println();
+        rb.statusRB();
+
+        System.out.println("\nTest 9: Final tree height");
+        System.out.println("Final tree height: " + rb.height());
+
+        System.out.println("\nTest 10: Tree statistics");
+        System.out.println(rb.stats());
+
+        System.out.println("\nTest 11: Bulk load 1..10 from sorted input");
+        RedBlack<Integer> bulk = RedBlack.buildFromSorted(new Integer[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+        bulk.printRedBlack();
+        System.out.println();
+        bulk.statusRB();
+
+        System.out.println("\nTest 12: Batch insert 11..14 and batch find 0, 5, 12, 20");
+        bulk.insertAll(new Integer[]{11, 12, 13, 14});
+        System.out.println("Found (batch positions): " + bulk.findAll(new Integer[]{0, 5, 12, 20}));
+        bulk.statusRB();
+
+        System.out.println("\nTest 13: Save to a snapshot file and load it back");
+        try {
+            Path file = Files.createTempFile("redblack", ".snapshot");
+            bulk.save(file, KeyCodec.INTEGER);
+            RedBlack<Integer> loaded = RedBlack.load(file, KeyCodec.INTEGER);
+            System.out.print("Loaded (element, color): ");
+            loaded.printRedBlack();
+            System.out.println();
+            loaded.statusRB();
+            System.out.println("File size: " + Files.size(file) + " bytes");
+            Files.delete(file);
+        } catch (IOException e) {
+            System.out.println("I/O error: " + e.getMessage());
+        }
+    }
+
+    static void testOffHeapRedBlack() {
+        System.out.println("===== Testing Off-Heap Red-Black Tree =====");
+        try (OffHeapRedBlack rb = new OffHeapRedBlack()) {
+
+            System.out.println("Test 1: Inserting elements 10, 20, 30, 15, 25, 5, 1, 7");
+            rb.insert(10);
+            rb.insert(20);
+            rb.insert(30);
+            rb.insert(15);
+            rb.insert(25);
+            rb.insert(5);
+            rb.insert(1);
+            rb.insert(7);
+
+            System.out.println("\nTest 2: Print the Red-Black tree structure");
+            System.out.print("Red-Black Tree (element, color): ");
+            rb.printRedBlack();
+            System.out.println();
+            rb.statusRB();
+
+            System.out.println("\nTest 3: Find operations");
+            System.out.println("Find 15: " + rb.find(15));  // Should be true
+            System.out.println("Find 40: " + rb.find(40));  // Should be false
+
+            System.out.println("\nTest 4: Delete operations");
+            System.out.println("Deleting 15 and 10...");
+            rb.delete(15);
+            rb.delete(10);
+            System.out.print("Red-Black Tree after deletion: ");
+            rb.printRedBlack();
+            System.out.println();
+            rb.statusRB();
+
+            System.out.println("\nTest 5: Size, height and off-heap bytes");
+            System.out.println("Size: " + rb.size() + " height: " + rb.height() + " off-heap bytes: " + rb.offHeapBytes());
+        }
+    }
+
+    static void testTree234() {
+        System.out.println("===== Testing 2-3-4 Tree =====");
+        Tree234<Integer> tree = new Tree234<>();
+
+        System.out.println("Test 1: Inserting elements 10, 20, 30, 5, 15, 25, 35");
+        tree.insert(10);
+        tree.insert(20);
+        tree.insert(30);
+        tree.insert(5);
+        tree.insert(15);
+        tree.insert(25);
+        tree.insert(35);
+
+        System.out.println("\nTest 2: Print the 2-3-4 tree structure");
+        System.out.print("2-3-4 Tree (element, node type): ");
+        tree.print234();
+        System.out.println();
+
+        System.out.println("\nTest 3: Get status of 2-3-4 tree");
+        tree.status234();
+
+        System.out.println("\nTest 4: Find operations");
+        System.out.println("Find 15: " + tree.find(15));
+        System.out.println("Find 40: " + tree.find(40));
+
+        System.out.println("\nTest 5: Tree height");
+        System.out.println("Tree height: " + tree.height());
+
+        System.out.println("\nTest 6: Delete operations");
+        System.out.println("Deleting 15...");
+        tree.delete(15);
+        System.out.print("2-3-4 Tree after deletion: ");
+        tree.print234();
+        System.out.println();
+        System.out.println("Find 15 after deletion: " + tree.find(15));
+
+        System.out.println("\nTest 7: Updated status after deletion");
+        tree.status234();
+
+        System.out.println("\nTest 8: Insert more elements to test node splitting");
+        System.out.println("Inserting elements 40, 45, 50, 55");
+        tree.insert(40);
+        tree.insert(45);
+        tree.insert(50);
+        tree.insert(55);
+        System.out.print("2-3-4 Tree after additional insertions: ");
+        tree.print234();
+        System.out.println();
+        tree.status234();
+
+        System.out.println("\nTest 9: Delete multiple elements to test node merging");
+        System.out.println("Deleting elements 10, 20, 30");
+        tree.delete(10);
+        tree.delete(20);
+        tree.delete(30);
+        System.out.print("2-3-4 Tree after multiple deletions: ");
+        tree.print234();
+        System.out.println();
+        tree.status234();
+
+        System.out.println("\nTest 10: Final tree height");
+        System.out.println("Final tree height: " + tree.height());
+
+        System.out.println("\nTest 11: Tree statistics");
+        System.out.println(tree.stats());
+    }
+
+    // Test Cases for BTree
+    static void testBTree() {
+        System.out.println("===== Testing B-Tree =====");
+
+        System.out.println("Test 1: Inserting 0..99999 in random order, deleting the even ones, for orders 4, 16 and 128");
+        List<Integer> keys = new ArrayList<>(IntStream.range(0, 100000).boxed().toList());
+        Collections.shuffle(keys, new Random(20));
+        for (int order : new int[]{4, 16, 128}) {
+            BTree<Integer> tree = new BTree<>(order);
+            keys.forEach(tree::insert);
+            int heightBefore = tree.height();
+            for (int i = 0; i < 100000; i += 2) {
+                tree.delete(i);
+            }
+
+            int wrong = 0;
+            for (int i = 0; i < 100000; i++) {
+                if (tree.find(i) != (i % 2 == 1)) {
+                    wrong++;
+                }
+            }
+            System.out.println("Order " + order + ": height " + heightBefore + " -> " + tree.height()
+                    + ", size = " + tree.size() + ", wrong finds = " + wrong + " (should be 50000 and 0)");
+        }
+
+        System.out.println("\nTest 2: Range [10, 30) of the odd keys, descending");
+        BTree<Integer> tree = new BTree<>(8);
+        for (int i = 1; i < 100; i += 2) {
+            tree.insert(i);
+        }
+        List<Integer> range = new ArrayList<>();
+        tree.range(10, true, 30, false, true).forEachRemaining(range::add);
+        System.out.println(range);
+
+        System.out.println("\nTest 3: Order 5");
+        try {
+            new BTree<Integer>(5);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Rejected: " + e.getMessage());
+        }
+
+        System.out.println("\nTest 4: Tree statistics");
+        System.out.println(tree.stats());
+    }
+
+    // Test Cases for PagedBTree
+    static void testPagedBTree() {
+        System.out.println("===== Testing Paged B-Tree =====");
+        Path file;
+        try {
+            file = Files.createTempFile("paged", ".btree");
+            Files.delete(file);
+        } catch (IOException e) {
+            System.out.println("Could not create a temporary file: " + e.getMessage());
+            return;
+        }
+
+        try {
+            System.out.println("Test 1: Inserting 0..199999 in random order with a 16 page cache, deleting the even ones");
+            List<Integer> keys = new ArrayList<>(IntStream.range(0, 200000).boxed().toList());
+            Collections.shuffle(keys, new Random(21));
+            try (PagedBTree tree = new PagedBTree(file, 16)) {
+                keys.forEach(tree::insert);
+                for (int i = 0; i < 200000; i += 2) {
+                    tree.delete(i);
+                }
+                System.out.println("Size: " + tree.size() + ", height: " + tree.height() + ", pages: " + tree.pageCount()
+                        + ", cache hits / misses: " + tree.cacheHits() + " / " + tree.cacheMisses());
+            }
+
+            System.out.println("\nTest 2: Reopening the file");
+            try (PagedBTree tree = new PagedBTree(file, 16)) {
+                int wrong = 0;
+                for (int i = 0; i < 200000; i++) {
+                    if (tree.find(i) != (i % 2 == 1)) {
+                        wrong++;
+                    }
+                }
+                System.out.println("Size: " + tree.size() + ", wrong finds: " + wrong + " (should be 100000 and 0)");
+            }
+
+            System.out.println("\nTest 3: As a BalanceTree<Long>, behind a LatencyTree");
+            try (PagedBTree tree = new PagedBTree(file, 16)) {
+                LatencyTree<Long> timed = new LatencyTree<>(tree);
+                timed.insert(1000000L);
+                System.out.println("Find 1000000: " + timed.find(1000000L) + ", find 1000001: " + timed.find(1000001L)
+                        + ", timed finds: " + timed.histogram(TreeMetrics.Operation.FIND).count());
+
+                StringBuilder sb = new StringBuilder();
+                timed.range(99990L, true, 100010L, false, false).forEachRemaining(key -> sb.append(key).append(' '));
+                System.out.println("Range [99990, 100010): " + sb.toString().trim());
+
+                int count = 0;
+                boolean ordered = true;
+                long previous = Long.MAX_VALUE;
+                for (Iterator<Long> it = timed.descending(); it.hasNext(); ) {
+                    long key = it.next();
+                    ordered &= key < previous;
+                    previous = key;
+                    count++;
+                }
+                System.out.println("Descending: " + count + " keys, in order: " + ordered + " (should be 100001 and true)");
+                System.out.println(timed.stats());
+
+                try {
+                    new ConcurrentBalanceTree<>(timed);
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Rejected by ConcurrentBalanceTree: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("I/O error: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.out.println("Could not delete " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Test Cases for ConcurrentBalanceTree
+    static void testConcurrentBalanceTree() {
+        System.out.println("===== Testing ConcurrentBalanceTree =====");
+        List<BalanceTree<Integer>> trees = List.of(new AVL<>(), new RedBlack<>(), new Tree234<>());
+
+        System.out.println("Test 1: 2 writers toggle odd keys while 4 readers look up even keys that never change");
+        for (BalanceTree<Integer> tree : trees) {
+            ConcurrentBalanceTree<Integer> concurrent = new ConcurrentBalanceTree<>(tree);
+            for (int i = 0; i < 10000; i++) {
+                concurrent.insert(2 * i);
+            }
+
+            AtomicInteger wrong = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                int seed = t;
+                threads.add(new Thread(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 100000; i++) {
+                        int key = 2 * random.nextInt(10000) + 1;
+                        concurrent.insert(key);
+                        concurrent.delete(key);
+                    }
+                }));
+            }
+            for (int t = 0; t < 4; t++) {
+                int seed = 100 + t;
+                threads.add(new Thread(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 500000; i++) {
+                        if (!concurrent.find(2 * random.nextInt(10000))) {
+                            wrong.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            System.out.println(tree.getClass().getSimpleName() + ": wrong answers = " + wrong.get()
+                    + ", size = " + concurrent.size() + " (should be 0 and 10000)");
+        }
+
+        System.out.println("\nTest 2: Wrapping a Splay tree");
+        try {
+            new ConcurrentBalanceTree<>(new Splay<Integer>());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Rejected: " + e.getMessage());
+        }
+
+        System.out.println("\nTest 3: Wrapping a Splay tree behind a LatencyTree, and an AVL behind one");
+        try {
+            new ConcurrentBalanceTree<>(new LatencyTree<>(new Splay<Integer>()));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Rejected: " + e.getMessage());
+        }
+        ConcurrentBalanceTree<Integer> wrapped = new ConcurrentBalanceTree<>(new LatencyTree<>(new AVL<Integer>()));
+        wrapped.insert(1);
+        System.out.println("AVL accepted, find 1: " + wrapped.find(1));
+    }
+
+    // Test Cases for ConcurrentAVL
+    static void testConcurrentAVL() {
+        System.out.println("===== Testing Concurrent AVL Tree =====");
+        ConcurrentAVL<Integer> avl = new ConcurrentAVL<>();
+
+        System.out.println("Test 1: Inserting elements 10, 5, 15, 3, 7, 12, 20");
+        for (int item : new int[]{10, 5, 15, 3, 7, 12, 20}) {
+            avl.insert(item);
+        }
+        System.out.println("Find 7: " + avl.find(7));
+        System.out.println("Find 9: " + avl.find(9));
+        System.out.println("Tree height: " + avl.height() + " size: " + avl.size());
+
+        System.out.println("\nTest 2: Delete 10 (two children, stays as a routing node) and 3");
+        System.out.println("Remove 10: " + avl.remove(10) + ", remove 10 again: " + avl.remove(10));
+        avl.delete(3);
+        System.out.println(avl.stats());
+        System.out.println("Add 10 back: " + avl.add(10) + ", find 10: " + avl.find(10));
+
+        // Every round a few threads run a handful of add / remove / find calls each on a tree
+        // that also holds other keys, timing each call. A set is linearizable iff each key's history is,
+        // so each key is checked on its own by searching for an order of its calls that respects the
+        // timings and gives every call the result it actually got.
+        System.out.println("\nTest 3: Linearizability stress test, 4 threads x 8 operations on 4 keys, 2000 rounds");
+        int threads = 4;
+        int opsPerThread = 8;
+        int keys = 4;
+        int rounds = 2000;
+        int failures = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Random random = new Random(42);
+
+        try {
+            for (int round = 0; round < rounds; round++) {
+                ConcurrentAVL<Integer> tree = new ConcurrentAVL<>();
+                boolean[] initial = new boolean[keys];
+                for (int key = -16; key < keys + 16; key++) {
+                    if (random.nextBoolean()) {
+                        tree.add(key);
+                        if (key >= 0 && key < keys) {
+                            initial[key] = true;
+                        }
+                    }
+                }
+
+                // history[key] holds {operation (0 add, 1 remove, 2 find), result, start, end}
+                List<List<long[]>> history = new ArrayList<>();
+                for (int key = 0; key < keys; key++) {
+                    history.add(Collections.synchronizedList(new ArrayList<>()));
+                }
+                CyclicBarrier start = new CyclicBarrier(threads);
+                List<Callable<Void>> tasks = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    long seed = random.nextLong();
+                    tasks.add(() -> {
+                        Random local = new Random(seed);
+                        start.await();
+                        for (int i = 0; i < opsPerThread; i++) {
+                            int key = local.nextInt(keys);
+                            int operation = local.nextInt(3);
+                            long begin = System.nanoTime();
+                            boolean result = (operation == 0) ? tree.add(key) : (operation == 1) ? tree.remove(key) : tree.find(key);
+                            long end = System.nanoTime();
+                            history.get(key).add(new long[]{operation, result ? 1 : 0, begin, end});
+                        }
+                        return null;
+                    });
+                }
+                for (Future<Void> future : pool.invokeAll(tasks)) {
+                    future.get();
+                }
+
+                for (int key = 0; key < keys; key++) {
+                    List<long[]> calls = history.get(key);
+                    if (!linearizable(calls, new boolean[calls.size()], calls.size(), initial[key])) {
+                        failures++;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        System.out.println("Key histories that are not linearizable: " + failures + " (should be 0)");
+    }
+
+    // Test Cases for ShardedTree
+    static void testShardedTree() {
+        System.out.println("===== Testing ShardedTree =====");
+        List<Supplier<BalanceTree<Integer>>> factories =
+                List.of(AVL::new, RedBlack::new, Splay::new, Tree234::new);
+
+        System.out.println("Test 1: Inserting 0..9999 in random order, shards split at 1000 keys");
+        for (Supplier<BalanceTree<Integer>> factory : factories) {
+            ShardedTree<Integer> tree = new ShardedTree<>(factory, 1000, 16, ForkJoinPool.commonPool());
+            List<Integer> keys = new ArrayList<>(IntStream.range(0, 10000).boxed().toList());
+            Collections.shuffle(keys, new Random(17));
+            keys.forEach(tree::insert);
+            for (int i = 0; i < 10000; i += 2) {
+                tree.delete(i);
+            }
+
+            int wrong = 0;
+            for (int i = 0; i < 10000; i++) {
+                if (tree.find(i) != (i % 2 == 1)) {
+                    wrong++;
+                }
+            }
+            List<Integer> range = new ArrayList<>();
+            tree.range(2500, 7500).forEachRemaining(range::add);
+            System.out.println(factory.get().getClass().getSimpleName() + ": shards = " + tree.shardCount()
+                    + ", size = " + tree.size() + ", wrong finds = " + wrong + ", range [2500, 7500) = "
+                    + range.size() + " keys (should be 5000, 0 and 2500)");
+        }
+
+        System.out.println("\nTest 2: Parallel batch insert of 0..99999, then a batch lookup of every third key");
+        ShardedTree<Integer> tree = new ShardedTree<>(AVL::new, 10000, 16, ForkJoinPool.commonPool());
+        tree.insertAll(IntStream.range(0, 100000).boxed().toArray(Integer[]::new));
+        Integer[] probes = IntStream.range(0, 150000).filter(i -> i % 3 == 0).boxed().toArray(Integer[]::new);
+        System.out.println("Shards: " + tree.shardCount() + ", size: " + tree.size() + ", found: "
+                + tree.findAll(probes).cardinality() + " (should be 100000 and 33334)");
+        System.out.println("Height (tallest shard): " + tree.height());
+
+        System.out.println("\nTest 3: 4 threads hammer keys 0..99 of a tree holding 0..99999");
+        ShardedTree<Integer> hot = new ShardedTree<>(AVL::new);
+        hot.insertAll(IntStream.range(0, 100000).boxed().toArray(Integer[]::new));
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 200000; i++) {
+                    int key = random.nextInt(100);
+                    hot.delete(key);
+                    hot.insert(key);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        System.out.println("Shards after the hot spot: " + hot.shardCount() + ", size: " + hot.size()
+                + " (should be more than 2 and 100000)");
+
+        System.out.println("\nTest 4: Tree statistics");
+        System.out.println(tree.stats());
+    }
+
+    // Test Cases for PersistentAVL
+    static void testPersistentAVL() {
+        System.out.println("===== Testing Persistent AVL Tree =====");
+        PersistentAVL<Integer> avl = new PersistentAVL<>();
+
+        System.out.println("Test 1: Inserting 1..10, snapshot, then deleting the even ones");
+        for (int i = 1; i <= 10; i++) {
+            avl.insert(i);
+        }
+        PersistentAVL<Integer> snapshot = avl.snapshot();
+        for (int i = 2; i <= 10; i += 2) {
+            avl.delete(i);
+        }
+        List<Integer> now = new ArrayList<>();
+        avl.ascending().forEachRemaining(now::add);
+        List<Integer> then = new ArrayList<>();
+        snapshot.ascending().forEachRemaining(then::add);
+        System.out.println("Current: " + now + ", snapshot: " + then);
+
+        System.out.println("\nTest 2: plus / minus leave the original alone");
+        PersistentAVL<Integer> more = avl.plus(100);
+        PersistentAVL<Integer> less = avl.minus(1);
+        System.out.println("Original size: " + avl.size() + ", plus(100): " + more.size() + " find(100) = " + more.find(100)
+                + ", minus(1): " + less.size() + " find(1) = " + less.find(1) + " (should be 5, 6 true, 4 false)");
+
+        System.out.println("\nTest 3: 1 writer toggles keys while 2 readers check that every snapshot stays the same");
+        PersistentAVL<Integer> shared = new PersistentAVL<>();
+        for (int i = 0; i < 10000; i++) {
+            shared.insert(2 * i);
+        }
+        AtomicInteger wrong = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> {
+            Random random = new Random(1);
+            for (int i = 0; i < 200000; i++) {
+                int key = random.nextInt(20000);
+                if (random.nextBoolean()) {
+                    shared.insert(key);
+                } else {
+                    shared.delete(key);
+                }
+            }
+        }));
+        for (int t = 0; t < 2; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    PersistentAVL<Integer> view = shared.snapshot();
+                    int size = view.size();
+                    int counted = 0;
+                    for (Iterator<Integer> it = view.ascending(); it.hasNext(); it.next()) {
+                        counted++;
+                    }
+                    if (counted != size || view.size() != size) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        System.out.println("Snapshots that changed while being read: " + wrong.get() + " (should be 0)");
+
+        System.out.println("\nTest 4: Tree statistics");
+        System.out.println(shared.stats());
+    }
+
+    // Test Cases for DurableTree
+    static void testDurableTree() {
+        System.out.println("===== Testing Durable Tree =====");
+        Path directory;
+        try {
+            directory = Files.createTempDirectory("durable");
+        } catch (IOException e) {
+            System.out.println("Could not create a temporary directory: " + e.getMessage());
+            return;
+        }
+
+        try {
+            System.out.println("Test 1: Inserting 0..9999 into an AVL, deleting the even ones, checkpoint every 4096 operations");
+            try (DurableTree<Integer> tree = new DurableTree<>(new AVL<>(), directory, KeyCodec.INTEGER, true, 0, 4096)) {
+                for (int i = 0; i < 10000; i++) {
+                    tree.insert(i);
+                }
+                for (int i = 0; i < 10000; i += 2) {
+                    tree.delete(i);
+                }
+                System.out.println("Size: " + tree.size() + ", fsyncs: " + tree.fsyncs()
+                        + ", log bytes since the last checkpoint: " + Files.size(directory.resolve("wal")));
+            }
+
+            System.out.println("\nTest 2: Recovering into each tree type from the checkpoint and the log");
+            List<Supplier<BalanceTree<Integer>>> factories = List.of(AVL::new, RedBlack::new, Splay::new, Tree234::new);
+            for (Supplier<BalanceTree<Integer>> factory : factories) {
+                BalanceTree<Integer> empty = factory.get();
+                try (DurableTree<Integer> tree = new DurableTree<>(empty, directory, KeyCodec.INTEGER)) {
+                    int wrong = 0;
+                    for (int i = 0; i < 10000; i++) {
+                        if (tree.find(i) != (i % 2 == 1)) {
+                            wrong++;
+                        }
+                    }
+                    System.out.println(empty.getClass().getSimpleName() + " size: " + tree.size() + ", wrong finds: " + wrong
+                            + " (should be 5000 and 0)");
+                }
+            }
+
+            System.out.println("\nTest 3: A torn record at the end of the log is dropped on recovery");
+            try (DurableTree<Integer> tree = new DurableTree<>(new RedBlack<>(), directory, KeyCodec.INTEGER)) {
+                tree.insert(-1);
+            }
+            Files.write(directory.resolve("wal"), new byte[]{0, 0, 0, 5, 1, 0}, StandardOpenOption.APPEND);
+            try (DurableTree<Integer> tree = new DurableTree<>(new RedBlack<>(), directory, KeyCodec.INTEGER)) {
+                System.out.println("Size: " + tree.size() + ", find(-1) = " + tree.find(-1) + " (should be 5001 and true)");
+            }
+
+            System.out.println("\nTest 4: 8 threads inserting 500 keys each with group commit and a 200 microsecond window");
+            try (DurableTree<Integer> tree = new DurableTree<>(new AVL<>(), directory, KeyCodec.INTEGER, true, 200, 0)) {
+                long before = tree.fsyncs();
+                List<Thread> threads = new ArrayList<>();
+                for (int t = 0; t < 8; t++) {
+                    int base = 100000 * (t + 1);
+                    threads.add(new Thread(() -> {
+                        for (int i = 0; i < 500; i++) {
+                            tree.insert(base + i);
+                        }
+                    }));
+                }
+                threads.forEach(Thread::start);
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+                System.out.println("Size: " + tree.size() + " (should be 9001), fsyncs for 4000 inserts: " + (tree.fsyncs() - before));
+            }
+        } catch (IOException e) {
+            System.out.println("I/O error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+                Files.delete(directory);
+            } catch (IOException e) {
+                System.out.println("Could not delete " + directory + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // Test Cases for TreeMetrics, run with -Dtrees.metrics=true
+    static void testTreeMetrics() {
+        System.out.println("===== Testing Tree Metrics =====");
+        if (!TreeMetrics.ENABLED) {
+            System.out.println("Metrics are off, run with -Dtrees.metrics=true to see the counts");
+            return;
+        }
+
+        System.out.println("Test 1: 100000 inserts in random order, then 100000 finds and 50000 deletes, per tree");
+        List<Integer> keys = new ArrayList<>(IntStream.range(0, 100000).boxed().toList());
+        Collections.shuffle(keys, new Random(24));
+        List<Supplier<BalanceTree<Integer>>> factories = List.of(AVL::new, Splay::new, RedBlack::new, Tree234::new,
+                () -> new BTree<>(64));
+        for (Supplier<BalanceTree<Integer>> factory : factories) {
+            BalanceTree<Integer> tree = factory.get();
+            TreeMetrics.reset();
+            keys.forEach(tree::insert);
+            TreeMetrics.Snapshot inserted = TreeMetrics.snapshot();
+            keys.forEach(tree::find);
+            TreeMetrics.Snapshot found = TreeMetrics.snapshot();
+            for (int i = 0; i < keys.size(); i += 2) {
+                tree.delete(keys.get(i));
+            }
+            TreeMetrics.Snapshot deleted = TreeMetrics.snapshot();
+
+            System.out.println("\n" + tree.getClass().getSimpleName() + " inserts: " + inserted);
+            System.out.println(tree.getClass().getSimpleName() + " finds: " + found.minus(inserted));
+            System.out.println(tree.getClass().getSimpleName() + " deletes: " + deleted.minus(found));
+        }
+
+        System.out.println("\nTest 2: 1..1023 in ascending order into an AVL");
+        TreeMetrics.reset();
+        AVL<Integer> avl = new AVL<>();
+        for (int i = 1; i <= 1023; i++) {
+            avl.insert(i);
+        }
+        System.out.println("Rotations: " + TreeMetrics.snapshot().count(TreeMetrics.Event.ROTATION)
+                + " and height: " + avl.height() + " (should be 1013 = 1023 - 10 and 9, the tree ends up perfect)");
+
+        System.out.println("\nTest 3: 10000 sorted keys found one by one and as one findAll batch, per tree");
+        Integer[] batch = IntStream.range(0, 10000).map(i -> 10 * i).boxed().toArray(Integer[]::new);
+        List<BalanceTree<Integer>> batchTrees = List.of(new AVL<>(), new RedBlack<>());
+        for (BalanceTree<Integer> tree : batchTrees) {
+            keys.forEach(tree::insert);
+            TreeMetrics.reset();
+            for (Integer key : batch) {
+                tree.find(key);
+            }
+            TreeMetrics.Snapshot loop = TreeMetrics.snapshot();
+            tree.findAll(batch);
+            TreeMetrics.Snapshot batched = TreeMetrics.snapshot().minus(loop);
+            System.out.printf("%s comparisons per find: %.2f one by one, %.2f batched%n", tree.getClass().getSimpleName(),
+                    loop.perOperation(TreeMetrics.Event.COMPARISON), batched.perOperation(TreeMetrics.Event.COMPARISON));
+        }
+    }
+
+    // Test Cases for LatencyTree
+    static void testLatencyTree() {
+        System.out.println("===== Testing Latency Tree =====");
+        List<Integer> keys = new ArrayList<>(IntStream.range(0, 100000).boxed().toList());
+        Collections.shuffle(keys, new Random(25));
+
+        System.out.println("Test 1: 100000 random inserts, finds and deletes, per tree");
+        List<Supplier<BalanceTree<Integer>>> factories = List.of(AVL::new, Splay::new, RedBlack::new, Tree234::new);
+        for (Supplier<BalanceTree<Integer>> factory : factories) {
+            BalanceTree<Integer> plain = factory.get();
+            LatencyTree<Integer> tree = new LatencyTree<>(plain);
+            keys.forEach(tree::insert);
+            keys.forEach(tree::find);
+            keys.forEach(tree::delete);
+            System.out.println(plain.getClass().getSimpleName());
+            for (Map.Entry<TreeMetrics.Operation, LatencyHistogram> entry : tree.total().entrySet()) {
+                System.out.println("    " + entry.getKey() + ": " + entry.getValue());
+            }
+        }
+
+        System.out.println("\nTest 2: Splay loaded in ascending order, then find(0) and find(50000) in two intervals");
+        LatencyTree<Integer> splay = new LatencyTree<>(new Splay<Integer>());
+        for (int i = 0; i < 100000; i++) {
+            splay.insert(i);
+        }
+        splay.interval();
+        splay.find(0);
+        LatencyHistogram deep = splay.interval().get(TreeMetrics.Operation.FIND);
+        splay.find(50000);
+        LatencyHistogram shallow = splay.interval().get(TreeMetrics.Operation.FIND);
+        System.out.println("find(0) on the 100000 long chain: " + deep.max() + " ns, the next find: " + shallow.max()
+                + " ns, finds in total: " + splay.histogram(TreeMetrics.Operation.FIND).count() + " (should be 2)");
+
+        System.out.println("\nTest 3: Exporting both intervals to CSV");
+        try {
+            Path file = Files.createTempFile("latency", ".csv");
+            Files.delete(file);
+            LatencyTree.appendCsv(file, "interval 1", Map.of(TreeMetrics.Operation.FIND, deep));
+            LatencyTree.appendCsv(file, "interval 2", Map.of(TreeMetrics.Operation.FIND, shallow));
+            Files.readAllLines(file).forEach(line -> System.out.println("    " + line));
+            Files.delete(file);
+        } catch (IOException e) {
+            System.out.println("I/O error: " + e.getMessage());
+        }
+    }
+
+    // Wing & Gong search: try each call that could have taken effect first, then the rest recursively
+    private static boolean linearizable(List<long[]> calls, boolean[] done, int remaining, boolean present) {
+        if (remaining == 0) {
+            return true;
+        }
+
+        // a call can only go first if it started before every other remaining call ended
+        long firstEnd = Long.MAX_VALUE;
+        for (int i = 0; i < calls.size(); i++) {
+            if (!done[i]) {
+                firstEnd = Math.min(firstEnd, calls.get(i)[3]);
+            }
+        }
+
+        for (int i = 0; i < calls.size(); i++) {
+            long[] call = calls.get(i);
+            if (done[i] || call[2] > firstEnd) {
+                continue;
+            }
+
+            boolean expected = (call[0] == 0) ? !present : present;
+            boolean after = (call[0] == 0) || (call[0] != 1 && present);
+            if ((call[1] == 1) == expected) {
+                done[i] = true;
+                if (linearizable(calls, done, remaining - 1, after)) {
+                    return true;
+                }
+                done[i] = false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,558 @@
+/*
+Implementation of the 2-3-4 Tree using the BalanceTree interface
+Plus two additional Methods status234 and print234
+status234: Prints the number of two, three and four nodes (kept up to date by insert and delete)
+print234: Prints the items in order with the type of node holding them
+ */
+
+package trees;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class Tree234<E extends Comparable<E>> implements BalanceTree<E> {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    //a 2-3-4 tree of n keys is at most log2(n + 1) levels deep
+    private static final int MAX_DEPTH = 64;
+
+    private Node<E> root;
+    private int twoNodeCount = 0;
+    private int threeNodeCount = 0;
+    private int fourNodeCount = 0;
+    private int size = 0;
+
+    //Node class for 234
+    //keys and children are fixed size arrays, only the first count keys (and count + 1 children) are used
+    //a node never changes between leaf and internal, so leaves don't allocate a children array
+    private static class Node<E> {
+        final Object[] keys;
+        final Node<E>[] children;
+        byte count;
+
+        @SuppressWarnings("unchecked")
+        public Node(boolean leaf) {
+            keys = new Object[3];
+            children = leaf ? null : (Node<E>[]) new Node[4];
+            count = 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E key(int i) {
+            return (E) keys[i];
+        }
+
+        public boolean isLeaf() {
+            return children == null;
+        }
+
+        public int getType() {
+            return count + 1;
+        }
+
+        // Shifts keys[i..] right by one and puts key at i
+        public void insertKey(int i, E key) {
+            System.arraycopy(keys, i, keys, i + 1, count - i);
+            keys[i] = key;
+            count++;
+        }
+
+        // Removes keys[i] and shifts the rest left by one
+        public void removeKey(int i) {
+            count--;
+            System.arraycopy(keys, i + 1, keys, i, count - i);
+            keys[count] = null;
+        }
+
+        // Shifts children[i..] right by one and puts child at i, call before insertKey
+        public void insertChild(int i, Node<E> child) {
+            System.arraycopy(children, i, children, i + 1, count + 1 - i);
+            children[i] = child;
+        }
+
+        // Removes children[i] and shifts the rest left by one, call after removeKey
+        public void removeChild(int i) {
+            System.arraycopy(children, i + 1, children, i, count + 1 - i);
+            children[count + 1] = null;
+        }
+    }
+
+    // Constructor
+    public Tree234() {
+        root = new Node<>(true);
+    }
+
+    //MARK: - Helper Methods ------------------------------------------------------------------
+
+    // Adds delta to the counter for the node's current type
+    // called with -1 before a node's keys change and +1 after
+    private void countNode(Node<E> node, int delta) {
+        switch (node.getType()) {
+            case 2: twoNodeCount += delta; break;
+            case 3: threeNodeCount += delta; break;
+            case 4: fourNodeCount += delta; break;
+        }
+    }
+
+    // For insertion into the node
+    public void instertNode(Node<E> node, E item) {
+        int i = 0;
+        while (i < node.count && TreeMetrics.compare(item, node.key(i)) > 0) {
+            i++;
+        }
+
+        if (i < node.count && TreeMetrics.compare(item, node.key(i)) == 0) {
+            return;
+        }
+
+        if (node.isLeaf()) {
+            countNode(node, -1);
+            node.insertKey(i, item);
+            countNode(node, 1);
+            size++;
+            return;
+        }
+
+        Node<E> childNode = node.children[i];
+        if (childNode.count == 3) {
+            splitChild(node, i);
+
+            int cmp = TreeMetrics.compare(item, node.key(i));
+            if (cmp == 0) {
+                // the item was the middle key that moved up
+                return;
+            } else if (cmp > 0) {
+                childNode = node.children[i + 1];
+            } else {
+                childNode = node.children[i];
+            }
+        }
+
+        // Continue insertion process
+        instertNode(childNode, item);
+    }
+
+    private void splitChild(Node<E> parent, int childIndex) {
+        TreeMetrics.count(TreeMetrics.Event.SPLIT);
+        Node<E> child = parent.children[childIndex];
+        Node<E> newChild = new Node<>(child.isLeaf());
+        countNode(parent, -1);
+        countNode(child, -1);
+
+        // Right key moves to the new node, middle key moves up
+        newChild.keys[0] = child.keys[2];
+        newChild.count = 1;
+
+        if (!child.isLeaf()) {
+            newChild.children[0] = child.children[2];
+            newChild.children[1] = child.children[3];
+
+            child.children[2] = null;
+            child.children[3] = null;
+        }
+
+        E middleKey = child.key(1);
+        child.keys[1] = null;
+        child.keys[2] = null;
+        child.count = 1;
+
+        parent.insertChild(childIndex + 1, newChild);
+        parent.insertKey(childIndex, middleKey);
+        countNode(parent, 1);
+        countNode(child, 1);
+        countNode(newChild, 1);
+    }
+
+    //Never more than MAX_DEPTH levels, so an optimistic reader racing a split or merge
+    //(see ConcurrentBalanceTree) cannot recurse without end
+    private boolean find(Node<E> node, E item) {
+        for (int depth = 0; depth < MAX_DEPTH; depth++) {
+            int i = 0;
+
+            while (i < node.count && TreeMetrics.compare(item, node.key(i)) > 0) {
+                i++;
+            }
+
+            if (i < node.count && TreeMetrics.compare(item, node.key(i)) == 0) {
+                return true;
+            }
+
+            if (node.isLeaf()) {
+                return false;
+            }
+
+            node = node.children[i];
+        }
+        return false;
+    }
+
+    // Top-down delete: every child we step into is made to hold at least two keys first,
+    // so removing a key from a leaf never leaves it empty and nothing has to be fixed on the way back up
+    private void delete(Node<E> node, E item) {
+        int i = 0;
+
+        while (i < node.count && TreeMetrics.compare(item, node.key(i)) > 0) {
+            i++;
+        }
+
+        // Case 1: Item found in current node
+        if (i < node.count && TreeMetrics.compare(item, node.key(i)) == 0) {
+            if (node.isLeaf()) {
+                countNode(node, -1);
+                node.removeKey(i);
+                countNode(node, 1);
+                size--;
+                return;
+            }
+
+            Node<E> leftChild = node.children[i];
+            Node<E> rightChild = node.children[i + 1];
+
+            if (leftChild.count >= 2) {
+                // replace with the predecessor and delete it from the left subtree
+                E predecessor = maxKey(leftChild);
+                node.keys[i] = predecessor;
+                delete(leftChild, predecessor);
+            } else if (rightChild.count >= 2) {
+                // replace with the successor and delete it from the right subtree
+                E successor = minKeyOf(rightChild);
+                node.keys[i] = successor;
+                delete(rightChild, successor);
+            } else {
+                // both children are 2-nodes, pull the item down into a merged 4-node
+                mergeNodes(node, i);
+                delete(leftChild, item);
+            }
+        }
+        // Case 2: Item not found in current node
+        else {
+            if (node.isLeaf()) {
+                return;
+            }
+            delete(minKey(node, i), item);
+        }
+    }
+
+    // Makes sure parent.children[nodeIndex] has at least two keys before we descend into it
+    // by borrowing from a sibling or merging with one. Returns the node to descend into.
+    private Node<E> minKey(Node<E> parent, int nodeIndex) {
+        Node<E> node = parent.children[nodeIndex];
+
+        // Fine already
+        if (node.count >= 2) {
+            return node;
+        }
+
+        // Try to borrow from left sibling
+        if (nodeIndex > 0) {
+            Node<E> leftSibling = parent.children[nodeIndex - 1];
+
+            if (leftSibling.count >= 2) {
+                TreeMetrics.count(TreeMetrics.Event.BORROW);
+                countNode(node, -1);
+                countNode(leftSibling, -1);
+
+                int last = leftSibling.count - 1;
+                if (!leftSibling.isLeaf()) {
+                    node.insertChild(0, leftSibling.children[last + 1]);
+                    leftSibling.children[last + 1] = null;
+                }
+                node.insertKey(0, parent.key(nodeIndex - 1));
+
+                parent.keys[nodeIndex - 1] = leftSibling.keys[last];
+                leftSibling.removeKey(last);
+
+                countNode(node, 1);
+                countNode(leftSibling, 1);
+                return node;
+            }
+        }
+
+        // Try to borrow from right sibling
+        if (nodeIndex < parent.count) {
+            Node<E> rightSibling = parent.children[nodeIndex + 1];
+
+            if (rightSibling.count >= 2) {
+                TreeMetrics.count(TreeMetrics.Event.BORROW);
+                countNode(node, -1);
+                countNode(rightSibling, -1);
+
+                if (!rightSibling.isLeaf()) {
+                    node.children[node.count + 1] = rightSibling.children[0];
+                }
+                node.insertKey(node.count, parent.key(nodeIndex));
+
+                parent.keys[nodeIndex] = rightSibling.keys[0];
+                rightSibling.removeKey(0);
+                if (!rightSibling.isLeaf()) {
+                    rightSibling.removeChild(0);
+                }
+
+                countNode(node, 1);
+                countNode(rightSibling, 1);
+                return node;
+            }
+        }
+
+        if (nodeIndex > 0) {
+            // Merge with left sibling, node's keys end up in the left sibling
+            mergeNodes(parent, nodeIndex - 1);
+            return parent.children[nodeIndex - 1];
+        } else {
+            // Merge with right sibling
+            mergeNodes(parent, nodeIndex);
+            return node;
+        }
+    }
+
+    // Largest key in the subtree
+    private E maxKey(Node<E> node) {
+        while (!node.isLeaf()) {
+            node = node.children[node.count];
+        }
+        return node.key(node.count - 1);
+    }
+
+    // Smallest key in the subtree
+    private E minKeyOf(Node<E> node) {
+        while (!node.isLeaf()) {
+            node = node.children[0];
+        }
+        return node.key(0);
+    }
+
+    private void mergeNodes(Node<E> parent, int keyIndex) {
+        TreeMetrics.count(TreeMetrics.Event.MERGE);
+        Node<E> leftChild = parent.children[keyIndex];
+        Node<E> rightChild = parent.children[keyIndex + 1];
+        countNode(parent, -1);
+        countNode(leftChild, -1);
+        countNode(rightChild, -1);
+
+        int n = leftChild.count;
+        leftChild.keys[n] = parent.keys[keyIndex];
+
+        // Move all keys from right child to left child
+        System.arraycopy(rightChild.keys, 0, leftChild.keys, n + 1, rightChild.count);
+
+        // Move all children from right child to left child
+        if (!rightChild.isLeaf()) {
+            System.arraycopy(rightChild.children, 0, leftChild.children, n + 1, rightChild.count + 1);
+        }
+        leftChild.count = (byte) (n + 1 + rightChild.count);
+
+        parent.removeKey(keyIndex);
+        parent.removeChild(keyIndex + 1);
+        countNode(parent, 1);
+        countNode(leftChild, 1);
+    }
+
+    private void stats(Node<E> node, int depth, TreeStats.Builder builder) {
+        builder.node(depth, node.count);
+
+        if (!node.isLeaf()) {
+            for (int i = 0; i <= node.count; i++) {
+                stats(node.children[i], depth + 1, builder);
+            }
+        }
+    }
+
+    // In-order walk, every key is printed with the type of the node holding it
+    private void print234(Node<E> node, StringBuilder sb) {
+        String nodeType = "";
+        switch (node.getType()) {
+            case 2: nodeType = "two"; break;
+            case 3: nodeType = "three"; break;
+            case 4: nodeType = "four"; break;
+        }
+
+        for (int i = 0; i < node.count; i++) {
+            if (!node.isLeaf()) {
+                print234(node.children[i], sb);
+            }
+            sb.append("(").append(node.key(i)).append(", ").append(nodeType).append(") ");
+        }
+
+        if (!node.isLeaf()) {
+            print234(node.children[node.count], sb);
+        }
+    }
+
+    private int height(Node<E> node) {
+        if (node.isLeaf()) {
+            return 0;
+        }
+        return 1 + height(node.children[0]);
+    }
+
+    //MARK: - Interface Methods ------------------------------------------------------------------
+
+
+    @Override
+    public void insert(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.INSERT);
+        if (root.count == 3) {
+            // Split the full root under a new empty root, the middle key moves up
+            Node<E> newRoot = new Node<>(false);
+            newRoot.children[0] = root;
+            root = newRoot;
+            splitChild(newRoot, 0);
+        }
+
+        instertNode(root, item);
+    }
+
+    @Override
+    public boolean find(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.FIND);
+        return find(root, item);
+    }
+
+    @Override
+    public boolean findIsReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void delete(E item) {
+        TreeMetrics.operation(TreeMetrics.Operation.DELETE);
+        delete(root, item);
+
+        if (root.count == 0 && !root.isLeaf()) {
+            root = root.children[0];
+        }
+    }
+
+    @Override
+    public int height() {
+        return height(root);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // node types come from the maintained counters, the walk is only needed for the depths
+    @Override
+    public TreeStats stats() {
+        TreeStats.Builder builder = new TreeStats.Builder();
+        stats(root, 0, builder);
+        return builder.type("two", twoNodeCount)
+                .type("three", threeNodeCount)
+                .type("four", fourNodeCount)
+                .build();
+    }
+
+    @Override
+    public Iterator<E> range(E from, boolean fromInclusive, E to, boolean toInclusive, boolean descending) {
+        return new Cursor(new Bounds<>(from, fromInclusive, to, toInclusive), descending);
+    }
+
+    //MARK: - Cursor ------------------------------------------------------------------
+
+    //In-order cursor over a path stack of (node, key index) frames, one frame per level
+    //ascending: index is the next key to return in that node, descending: index - 1 is
+    private class Cursor implements Iterator<E> {
+        private final Bounds<E> bounds;
+        private final boolean descending;
+        private final Node<E>[] nodes;
+        private final int[] index;
+        private int top;
+        private E next;
+
+        @SuppressWarnings("unchecked")
+        Cursor(Bounds<E> bounds, boolean descending) {
+            this.bounds = bounds;
+            this.descending = descending;
+
+            int levels = height(root) + 1;
+            nodes = (Node<E>[]) new Node[levels];
+            index = new int[levels];
+
+            // Push the path to the first key inside the start bound
+            Node<E> node = root;
+            while (true) {
+                int i;
+                if (descending) {
+                    i = node.count;
+                    while (i > 0 && !bounds.belowHigh(node.key(i - 1))) {
+                        i--;
+                    }
+                } else {
+                    i = 0;
+                    while (i < node.count && !bounds.aboveLow(node.key(i))) {
+                        i++;
+                    }
+                }
+                push(node, i);
+
+                if (node.isLeaf()) {
+                    break;
+                }
+                node = node.children[i];
+            }
+            advance();
+        }
+
+        private void push(Node<E> node, int i) {
+            nodes[top] = node;
+            index[top++] = i;
+        }
+
+        //Drop finished frames, then peek at the next key and stop once it is past the end bound
+        private void advance() {
+            next = null;
+            while (top > 0 && (descending ? index[top - 1] == 0 : index[top - 1] == nodes[top - 1].count)) {
+                top--;
+            }
+            if (top > 0) {
+                Node<E> node = nodes[top - 1];
+                E candidate = node.key(descending ? index[top - 1] - 1 : index[top - 1]);
+                if (descending ? bounds.aboveLow(candidate) : bounds.belowHigh(candidate)) {
+                    next = candidate;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            E element = next;
+
+            // step past the key, then walk down the near edge of the subtree that follows it
+            Node<E> node = nodes[top - 1];
+            int i = descending ? --index[top - 1] : ++index[top - 1];
+            if (!node.isLeaf()) {
+                Node<E> child = node.children[i];
+                while (true) {
+                    push(child, descending ? child.count : 0);
+                    if (child.isLeaf()) {
+                        break;
+                    }
+                    child = child.children[descending ? child.count : 0];
+                }
+            }
+            advance();
+            return element;
+        }
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+    public void status234() {
+        System.out.println("two = " + twoNodeCount + " three = " + threeNodeCount + " four = " + fourNodeCount);
+    }
+    public void print234() {
+        StringBuilder sb = new StringBuilder();
+        print234(root, sb);
+        System.out.print(sb.toString());
+    }
+}
@@ -0,0 +1,165 @@
+/*
+Opt-in counters for the work behind each tree operation, to explain why one tree is slower than another on a workload
+Turned on with -Dtrees.metrics=true. ENABLED is a static final read once when the class loads, and every counting
+method checks it first, so with it off the JIT inlines the calls in the trees down to nothing.
+Counted in AVL, Splay, RedBlack, Tree234 and BTree:
+    COMPARISON: compareTo calls while searching, inserting and deleting, including the binary searches
+                AVL and RedBlack split a findAll batch with (cursors and range bounds are not counted)
+    ROTATION: single rotations, a double rotation counts as two
+    RECOLOR: RedBlack color changes in fixInsert / fixDelete
+    SPLIT / MERGE / BORROW: Tree234 and BTree node splits, merges and keys borrowed from a sibling
+Operations are the calls to insert, find and delete, a batch counts one per item.
+The counters are LongAdders, so threads counting at once don't fight over one cache line.
+They are shared by every tree in the JVM: reset before a run, snapshot after it.
+snapshot: Copies the counters into a Snapshot, perOperation(event) divides by the number of operations
+ */
+
+package trees;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class TreeMetrics {
+
+    //MARK: - Setup ------------------------------------------------------------------
+
+    public static final boolean ENABLED = Boolean.getBoolean("trees.metrics");
+
+    public enum Event {
+        COMPARISON, ROTATION, RECOLOR, SPLIT, MERGE, BORROW
+    }
+
+    public enum Operation {
+        INSERT, FIND, DELETE
+    }
+
+    private static final LongAdder[] EVENTS = adders(Event.values().length);
+    private static final LongAdder[] OPERATIONS = adders(Operation.values().length);
+
+    private TreeMetrics() {
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] adders = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    //MARK: - Counting ------------------------------------------------------------------
+
+    static void count(Event event) {
+        if (ENABLED) {
+            EVENTS[event.ordinal()].increment();
+        }
+    }
+
+    static void operation(Operation operation) {
+        if (ENABLED) {
+            OPERATIONS[operation.ordinal()].increment();
+        }
+    }
+
+    static void operations(Operation operation, int n) {
+        if (ENABLED) {
+            OPERATIONS[operation.ordinal()].add(n);
+        }
+    }
+
+    //a.compareTo(b), counted when enabled
+    static <E extends Comparable<E>> int compare(E a, E b) {
+        if (ENABLED) {
+            EVENTS[Event.COMPARISON.ordinal()].increment();
+        }
+        return a.compareTo(b);
+    }
+
+    //MARK: - Additional Methods ------------------------------------------------------------------
+
+    public static void reset() {
+        for (LongAdder adder : EVENTS) {
+            adder.reset();
+        }
+        for (LongAdder adder : OPERATIONS) {
+            adder.reset();
+        }
+    }
+
+    //Not atomic across counters: taken while trees are busy, the counts can be a few operations apart
+    public static Snapshot snapshot() {
+        long[] events = new long[EVENTS.length];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = EVENTS[i].sum();
+        }
+        long[] operations = new long[OPERATIONS.length];
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = OPERATIONS[i].sum();
+        }
+        return new Snapshot(events, operations);
+    }
+
+    //MARK: - Snapshot ------------------------------------------------------------------
+
+    public static final class Snapshot {
+        private final long[] events;
+        private final long[] operations;
+
+        private Snapshot(long[] events, long[] operations) {
+            this.events = events;
+            this.operations = operations;
+        }
+
+        public long count(Event event) {
+            return events[event.ordinal()];
+        }
+
+        public long operations(Operation operation) {
+            return operations[operation.ordinal()];
+        }
+
+        public long operations() {
+            long total = 0;
+            for (long n : operations) {
+                total += n;
+            }
+            return total;
+        }
+
+        //Average number of event per insert, find or delete, 0 before the first operation
+        public double perOperation(Event event) {
+            long total = operations();
+            return (total == 0) ? 0 : (double) count(event) / total;
+        }
+
+        //Counts since the earlier snapshot, for measuring one phase of a longer run
+        public Snapshot minus(Snapshot earlier) {
+            long[] e = new long[events.length];
+            for (int i = 0; i < e.length; i++) {
+                e[i] = events[i] - earlier.events[i];
+            }
+            long[] o = new long[operations.length];
+            for (int i = 0; i < o.length; i++) {
+                o[i] = operations[i] - earlier.operations[i];
+            }
+            return new Snapshot(e, o);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("operations: ").append(operations());
+            for (Operation operation : Operation.values()) {
+                sb.append(", ").append(operation.name().toLowerCase()).append(' ').append(operations(operation));
+            }
+            // events a tree never has (a 2-3-4 tree doesn't rotate) are left out
+            for (Event event : Event.values()) {
+                if (count(event) == 0 && event != Event.COMPARISON) {
+                    continue;
+                }
+                sb.append(String.format("%n%-10s %12d  %8.2f per operation",
+                        event.name().toLowerCase(), count(event), perOperation(event)));
+            }
+            return sb.toString();
+        }
+    }
+}
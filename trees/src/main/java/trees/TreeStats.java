@@ -0,0 +1,106 @@
+/*
+Shape statistics of a BalanceTree, returned by BalanceTree.stats()
+    1. size: number of keys
+    2. height: height of the tree (same value as BalanceTree.height())
+    3. nodeTypes: histogram of node kinds (balance factors, colors, 2/3/4-nodes, ...), depends on the tree
+    4. depthDistribution: number of keys at each depth, the root is depth 0
+    5. averageSearchPathLength: average number of nodes visited by a successful find
+Trees fill these in with a single pass over their nodes using TreeStats.Builder.
+ */
+
+package trees;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class TreeStats {
+
+    private final int size;
+    private final int height;
+    private final Map<String, Integer> nodeTypes;
+    private final long[] depthDistribution;
+    private final double averageSearchPathLength;
+
+    private TreeStats(Builder builder) {
+        long keys = 0;
+        long pathLength = 0;
+        for (int depth = 0; depth <= builder.maxDepth; depth++) {
+            keys += builder.depthCounts[depth];
+            pathLength += builder.depthCounts[depth] * (depth + 1);
+        }
+
+        this.size = (int) keys;
+        this.height = builder.maxDepth;
+        this.nodeTypes = Collections.unmodifiableMap(new LinkedHashMap<>(builder.nodeTypes));
+        this.depthDistribution = Arrays.copyOf(builder.depthCounts, builder.maxDepth + 1);
+        this.averageSearchPathLength = (keys == 0) ? 0 : (double) pathLength / keys;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public Map<String, Integer> nodeTypes() {
+        return nodeTypes;
+    }
+
+    public long[] depthDistribution() {
+        return depthDistribution.clone();
+    }
+
+    public double averageSearchPathLength() {
+        return averageSearchPathLength;
+    }
+
+    @Override
+    public String toString() {
+        return "size=" + size
+                + " height=" + height
+                + " avgSearchPath=" + String.format("%.3f", averageSearchPathLength)
+                + " nodeTypes=" + nodeTypes
+                + " depths=" + Arrays.toString(depthDistribution);
+    }
+
+    //Collects the statistics while a tree walks its nodes
+    public static final class Builder {
+        private long[] depthCounts = new long[32];
+        private int maxDepth = -1;
+        private final Map<String, Integer> nodeTypes = new LinkedHashMap<>();
+
+        //Registers node types up front so they show up (with 0) in a fixed order
+        public Builder types(String... types) {
+            for (String type : types) {
+                nodeTypes.putIfAbsent(type, 0);
+            }
+            return this;
+        }
+
+        //Sets the count for a node type directly, for trees that maintain it themselves
+        public Builder type(String type, int count) {
+            nodeTypes.put(type, count);
+            return this;
+        }
+
+        //Records a node at depth holding keys keys (1 for binary trees)
+        public Builder node(int depth, int keys) {
+            if (depth >= depthCounts.length) {
+                depthCounts = Arrays.copyOf(depthCounts, Math.max(depthCounts.length * 2, depth + 1));
+            }
+            depthCounts[depth] += keys;
+            if (depth > maxDepth) {
+                maxDepth = depth;
+            }
+            return this;
+        }
+
+        public TreeStats build() {
+            return new TreeStats(this);
+        }
+    }
+}